@@ -0,0 +1,97 @@
+package java11;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Bounded previews of large reports.
+ * Reads at most maxBytes through a small direct buffer and stops after
+ * maxLines lines, so previewing a multi-gigabyte report costs the same as
+ * previewing a small one (unlike Files.readString, which loads the whole file).
+ */
+final class ReportPreview {
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private ReportPreview() {
+    }
+
+    /** The first maxLines lines of the file, reading no more than maxBytes. */
+    static String head(Path file, int maxLines, int maxBytes) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocateDirect(Math.min(BUFFER_SIZE, Math.max(1, maxBytes)));
+            var out = new byte[(int) Math.min(maxBytes, channel.size())];
+            int length = 0;
+            int lines = 0;
+            while (length < out.length && lines < maxLines) {
+                buffer.clear().limit(Math.min(buffer.capacity(), out.length - length));
+                if (channel.read(buffer) <= 0) {
+                    break;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n' && ++lines == maxLines) {
+                        break;
+                    }
+                    out[length++] = b;
+                }
+            }
+            if (length > 0 && out[length - 1] == '\n') {
+                length--; // like tail(): no trailing line break
+            }
+            return new String(out, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /** The last maxLines lines of the file, reading no more than maxBytes from its end. */
+    static String tail(Path file, int maxLines, int maxBytes) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocateDirect(Math.min(BUFFER_SIZE, Math.max(1, maxBytes)));
+            long end = channel.size();
+            long floor = Math.max(0, end - maxBytes);
+            var out = new byte[(int) (end - floor)];
+            int start = out.length; // out[start..] holds the bytes read so far
+            int lines = 0;
+            boolean skippedTrailingNewline = false;
+            long pos = end;
+            scan:
+            while (pos > floor && lines < maxLines) {
+                int chunk = (int) Math.min(buffer.capacity(), pos - floor);
+                pos -= chunk;
+                buffer.clear().limit(chunk);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, pos + buffer.position()) < 0) {
+                        break scan;
+                    }
+                }
+                for (int i = chunk - 1; i >= 0; i--) {
+                    byte b = buffer.get(i);
+                    if (b == '\n') {
+                        if (!skippedTrailingNewline && pos + i == end - 1) {
+                            skippedTrailingNewline = true; // a final newline doesn't start a new line
+                            continue;
+                        }
+                        if (++lines == maxLines) {
+                            break scan;
+                        }
+                    }
+                    out[--start] = b;
+                }
+            }
+            return new String(Arrays.copyOfRange(out, start, out.length), StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Reads at most maxBytes from a stream, e.g. an HTTP body, then closes it. */
+    static String head(InputStream in, int maxBytes) throws IOException {
+        try (in) {
+            return new String(in.readNBytes(maxBytes), StandardCharsets.UTF_8);
+        }
+    }
+}
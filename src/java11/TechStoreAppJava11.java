@@ -67,16 +67,14 @@ public class TechStoreAppJava11 {
             System.out.println("\n No products above $1000 found!");
         }
 
-        // 5️⃣ Write product list to a file (Files.writeString)
+        // 5️⃣ Write product list to a file — streamed row by row through a FileChannel
         Path reportFile = Paths.get("techstore_report.txt");
-        var reportText = products.stream()
-                .map(Product::toString)
-                .collect(Collectors.joining("\n"));
-        Files.writeString(reportFile, reportText);
+        StreamingReportWriter.write(reportFile, products.stream(), Product::toString);
 
         System.out.println("\n Report saved to: " + reportFile.toAbsolutePath());
         System.out.println(" File content preview:");
-        System.out.println(Files.readString(reportFile));
+        System.out.println(ReportPreview.head(reportFile, 3, 4096));
+        System.out.println(" ...last line: " + ReportPreview.tail(reportFile, 1, 4096));
 
         // 6️⃣ HTTP Client – simulate API request to check stock
         System.out.println("\n Checking product stock via mock API...");
@@ -86,9 +84,9 @@ public class TechStoreAppJava11 {
                 .GET()
                 .build();
 
-        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
         System.out.println(" API Response (status): " + response.statusCode());
-        System.out.println("Body preview: " + response.body().substring(0, 80) + "...");
+        System.out.println("Body preview: " + ReportPreview.head(response.body(), 80) + "...");
 
         // 7️⃣ New String methods
         var userInput = "   Java11  ".strip();
@@ -0,0 +1,390 @@
+package java12;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log for stock and price changes.
+ *
+ * Entry layout: length (int) | CRC32C of payload (int) | payload, where
+ * payload = type (byte) | sequence (long) | name length (short) | UTF-8 name | value (double).
+ *
+ * Callers log a change before applying it, while holding the lock that
+ * guards the changed state, so the sequence order of the entries for one
+ * product is the order the changes were applied in:
+ *
+ *   synchronized (product) {
+ *       seq = log.logStockChange(name, newStock); // buffered, not yet durable
+ *       product.stock = newStock;
+ *   }
+ *   log.commit(seq); // wait for durability outside the lock
+ *
+ * Writers append into a shared buffer; one background thread writes the
+ * buffer and calls force() once for everything appended so far (group
+ * commit), so many concurrent updates share a single fsync.
+ *   GROUP_COMMIT - commit() returns once the entry is on disk
+ *   INTERVAL     - force() every interval; commit() does not wait
+ *   NONE         - write without force(); the OS decides when to sync
+ *
+ * Opening an existing log replays it, drops a torn or corrupt tail left by
+ * a crash, and continues after the last valid entry. Entries are replayed
+ * in strictly increasing sequence order.
+ */
+final class ChangeLog implements AutoCloseable {
+
+    enum SyncPolicy { GROUP_COMMIT, INTERVAL, NONE }
+
+    enum Type {
+        STOCK(1), PRICE(2);
+
+        final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        static Type of(byte code) {
+            for (var t : values()) {
+                if (t.code == code) {
+                    return t;
+                }
+            }
+            return null;
+        }
+    }
+
+    static final class Change {
+        final Type type;
+        final long sequence;
+        final String product;
+        final double value;
+
+        Change(Type type, long sequence, String product, double value) {
+            this.type = type;
+            this.sequence = sequence;
+            this.product = product;
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + sequence + " " + type + " " + product + " -> " + (type == Type.STOCK ? String.valueOf((long) value) : String.valueOf(value));
+        }
+    }
+
+    private static final int FRAME_HEADER = 8;
+    private static final int MAX_PAYLOAD = 1 + 8 + 2 + Short.MAX_VALUE + 8;
+
+    private final FileChannel channel;
+    private final SyncPolicy policy;
+    private final long intervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataAvailable = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final CRC32C crc = new CRC32C(); // guarded by lock
+    private ByteBuffer active = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean flushRequested;
+    private IOException failure;
+    private boolean closed;
+    private final Thread flusher;
+
+    private ChangeLog(FileChannel channel, SyncPolicy policy, long intervalNanos, long lastSequence) {
+        this.channel = channel;
+        this.policy = policy;
+        this.intervalNanos = intervalNanos;
+        this.appendedSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.flusher = new Thread(this::flushLoop, "change-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    static ChangeLog open(Path file, SyncPolicy policy) throws IOException {
+        return open(file, policy, 10, TimeUnit.MILLISECONDS);
+    }
+
+    static ChangeLog open(Path file, SyncPolicy policy, long interval, TimeUnit unit) throws IOException {
+        long[] last = {0};
+        long validLength = Files.exists(file) ? replay(file, c -> last[0] = c.sequence) : 0;
+        var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(validLength); // drop a torn tail from a crash
+            channel.position(validLength);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new ChangeLog(channel, policy, unit.toNanos(interval), last[0]);
+    }
+
+    /** Buffers a stock change and returns its sequence; call commit(sequence) to wait for it. */
+    long logStockChange(String product, int newStock) throws IOException {
+        return append(Type.STOCK, product, newStock);
+    }
+
+    /** Buffers a price change and returns its sequence; call commit(sequence) to wait for it. */
+    long logPriceChange(String product, double newPrice) throws IOException {
+        return append(Type.PRICE, product, newPrice);
+    }
+
+    /** Under GROUP_COMMIT blocks until the entry is on disk; other policies return at once. */
+    void commit(long sequence) throws IOException {
+        if (policy != SyncPolicy.GROUP_COMMIT) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                checkFailure(); // close() still flushes what was appended
+                durable.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for change log sync");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long append(Type type, String product, double value) throws IOException {
+        byte[] name = product.getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Product name too long for the change log");
+        }
+        int payloadLength = 1 + 8 + 2 + name.length + 8;
+        lock.lock();
+        try {
+            checkOpen();
+            // Sequence and buffer position are assigned together, so file order is sequence order
+            long sequence = ++appendedSequence;
+            ensureCapacity(FRAME_HEADER + payloadLength);
+            int start = active.position();
+            active.putInt(payloadLength).putInt(0)
+                    .put(type.code).putLong(sequence).putShort((short) name.length).put(name).putDouble(value);
+            crc.reset();
+            crc.update(active.array(), start + FRAME_HEADER, payloadLength);
+            active.putInt(start + 4, (int) crc.getValue());
+            if (policy != SyncPolicy.INTERVAL) {
+                dataAvailable.signal(); // INTERVAL leaves the flusher asleep until its timer
+            }
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Blocks until everything appended so far is written (and forced, unless policy is NONE). */
+    void sync() throws IOException {
+        lock.lock();
+        try {
+            long target = appendedSequence;
+            flushRequested = true;
+            dataAvailable.signal();
+            while (durableSequence < target) {
+                checkFailure();
+                durable.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for change log sync");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long target;
+            lock.lock();
+            try {
+                try {
+                    if (policy == SyncPolicy.INTERVAL) {
+                        // Appends do not signal: flush once the interval is up and there is
+                        // data, or early when sync() or close() asks for it
+                        long remaining = intervalNanos;
+                        while (!closed && !flushRequested && (remaining > 0 || active.position() == 0)) {
+                            remaining = dataAvailable.awaitNanos(remaining > 0 ? remaining : intervalNanos);
+                        }
+                    } else {
+                        while (active.position() == 0 && !closed && !flushRequested) {
+                            dataAvailable.await();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // Nothing will flush from now on: fail waiters instead of leaving them blocked
+                    failure = new IOException("Change log flusher interrupted", e);
+                    durable.signalAll();
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                flushRequested = false;
+                if (active.position() == 0 && closed) {
+                    return;
+                }
+                batch = active;
+                active = spare;
+                spare = batch;
+                target = appendedSequence;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                if (policy != SyncPolicy.NONE) {
+                    channel.force(false); // one fsync for the whole group
+                }
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                batch.clear();
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSequence = target;
+                }
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (active.remaining() < bytes) {
+            var grown = ByteBuffer.allocate(Math.max(active.capacity() * 2, active.position() + bytes));
+            active.flip();
+            grown.put(active);
+            active = grown;
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Change log write failed", failure);
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        checkFailure();
+        if (closed) {
+            throw new IOException("Change log is closed");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            dataAvailable.signal();
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(); // flushes whatever is still buffered
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure == null && policy != SyncPolicy.NONE) {
+                channel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw new IOException("Change log write failed", failure);
+        }
+    }
+
+    /**
+     * Reads every valid entry in sequence order and returns the byte length of the
+     * valid prefix. Reading stops at the first torn or corrupt entry, or at an entry
+     * whose sequence does not follow the previous one.
+     */
+    static long replay(Path file, Consumer<Change> consumer) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(FRAME_HEADER);
+            var payload = ByteBuffer.allocate(256);
+            var crc = new CRC32C();
+            long position = 0;
+            long lastSequence = 0;
+            while (true) {
+                header.clear();
+                if (!readFully(channel, header, position)) {
+                    return position;
+                }
+                int length = header.getInt(0);
+                int checksum = header.getInt(4);
+                if (length < 19 || length > MAX_PAYLOAD) {
+                    return position;
+                }
+                if (payload.capacity() < length) {
+                    payload = ByteBuffer.allocate(length);
+                }
+                payload.clear().limit(length);
+                if (!readFully(channel, payload, position + FRAME_HEADER)) {
+                    return position;
+                }
+                crc.reset();
+                crc.update(payload.array(), 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    return position;
+                }
+                payload.flip();
+                Type type = Type.of(payload.get());
+                long sequence = payload.getLong();
+                int nameLength = payload.getShort();
+                if (type == null || nameLength < 0 || nameLength != length - 19 || sequence <= lastSequence) {
+                    return position;
+                }
+                lastSequence = sequence;
+                var name = new byte[nameLength];
+                payload.get(name);
+                consumer.accept(new Change(type, sequence, new String(name, StandardCharsets.UTF_8), payload.getDouble()));
+                position += FRAME_HEADER + length;
+            }
+        }
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,7 +1,12 @@
 package java12;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.text.NumberFormat;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -44,12 +49,7 @@ public class TechStoreAppJava12 {
         // 1️⃣ Switch Expression for category determination
         // ============================================================
         for (var p : products) {
-            var category = switch (p.name) {
-                case "MacBook Pro", "Dell XPS" -> "Laptop";
-                case "Keyboard", "Mouse" -> "Accessory";
-                default -> "Other";
-            };
-            System.out.println(" " + p.name + " is categorized as: " + category);
+            System.out.println(" " + p.name + " is categorized as: " + categoryOf(p));
         }
 
         // ============================================================
@@ -78,6 +78,11 @@ public class TechStoreAppJava12 {
                 ));
         System.out.println("\n Price Summary: " + summary);
 
+        // Generalized teeing: every metric, overall and per category, in one pass
+        var fullSummary = products.stream()
+                .collect(ProductSummary.summarizing(p -> p.price, p -> p.stock, TechStoreAppJava12::categoryOf));
+        System.out.println("\n Inventory Summary (single pass):\n" + fullSummary);
+
         // ============================================================
         // 5️⃣ String.indent() for pretty printing
         // ============================================================
@@ -86,7 +91,16 @@ public class TechStoreAppJava12 {
         System.out.println(report.toString().indent(4));
 
         // ============================================================
-        // 6️⃣ JVM and GC improvements (conceptual)
+        // 6️⃣ Durable stock & price updates (write-ahead change log)
+        // ============================================================
+        try {
+            changeLogDemo(products);
+        } catch (IOException e) {
+            System.out.println(" Change log demo failed: " + e.getMessage());
+        }
+
+        // ============================================================
+        // 7️⃣ JVM and GC improvements (conceptual)
         // ============================================================
         System.out.println("""
                     ️ JVM Enhancements:
@@ -97,4 +111,73 @@ public class TechStoreAppJava12 {
 
         System.out.println(" TechStore Java 12 demo complete!");
     }
+
+    //  Log every change before applying it, under the product's lock; concurrent sellers share fsyncs via group commit
+    static void changeLogDemo(List<Product> products) throws IOException {
+        var file = Files.createTempFile("techstore-changes", ".wal");
+        var baseline = new ArrayList<Product>();
+        products.forEach(p -> baseline.add(new Product(p.name, p.price, p.stock)));
+        int sellers = 8;
+        int salesPerSeller = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(sellers);
+        long start = System.nanoTime();
+        try (var log = ChangeLog.open(file, ChangeLog.SyncPolicy.GROUP_COMMIT)) {
+            for (int s = 0; s < sellers; s++) {
+                pool.execute(() -> {
+                    try {
+                        for (int i = 0; i < salesPerSeller; i++) {
+                            var p = products.get(i % products.size());
+                            long sequence;
+                            synchronized (p) {
+                                // Sell a unit, or restock when sold out / every third round
+                                int stock = p.stock > 0 && i % 3 != 0 ? p.stock - 1 : p.stock + 1;
+                                sequence = log.logStockChange(p.name, stock);
+                                p.stock = stock;
+                            }
+                            log.commit(sequence); // wait for the fsync outside the lock
+                        }
+                    } catch (IOException e) {
+                        System.out.println(" Seller failed: " + e.getMessage());
+                    }
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+            var mouse = products.get(3);
+            synchronized (mouse) {
+                log.commit(log.logPriceChange(mouse.name, 35.0));
+                mouse.price = 35.0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        int updates = sellers * salesPerSeller + 1;
+        System.out.printf("%n Logged %,d durable updates in %d ms (%,.0f/s)%n",
+                updates, elapsedNanos / 1_000_000, updates * 1e9 / elapsedNanos);
+
+        // Recovery: replay the log over the pre-demo state and compare with the live catalog
+        var recovered = new TreeMap<String, Product>();
+        baseline.forEach(p -> recovered.put(p.name, p));
+        ChangeLog.replay(file, c -> {
+            var p = recovered.get(c.product);
+            switch (c.type) {
+                case STOCK -> p.stock = (int) c.value; // entries arrive in the order they were applied
+                case PRICE -> p.price = c.value;
+            }
+        });
+        System.out.println(" Recovered from " + file.getFileName() + ": " + recovered.values());
+        System.out.println(" Matches live catalog: " + products.stream()
+                .allMatch(p -> p.toString().equals(recovered.get(p.name).toString())));
+        Files.deleteIfExists(file);
+    }
+
+    //  Switch Expression for category determination
+    static String categoryOf(Product p) {
+        return switch (p.name) {
+            case "MacBook Pro", "Dell XPS" -> "Laptop";
+            case "Keyboard", "Mouse" -> "Accessory";
+            default -> "Other";
+        };
+    }
 }
@@ -0,0 +1,60 @@
+package java13;
+
+/**
+ * Measures HyperLogLog error on catalog-style sequential keys ("sku-0",
+ * "sku-1", ...) and compares it with the expected standard error of
+ * 1.04 / sqrt(m). Each set size is counted once per key prefix; the rms
+ * error over the prefixes should stay within the expected standard error
+ * (with some sampling slack), and about 95% of the single estimates
+ * within twice that. Exits with status 1 if the rms error is too high.
+ *
+ *   java java13.HyperLogLogAccuracyCheck [precision]
+ */
+
+public class HyperLogLogAccuracyCheck {
+    private static final String[] PREFIXES = {
+            "sku-", "SKU", "item-", "p", "product-000", "Laptop ", "mouse-", "id:",
+            "SKU-2024-", "x", "order#", "cust_", "A", "barcode 400", "ean:", "P-",
+            "sku:", "item", "laptop-", "monitor-", "kb/", "ssd ", "id-", "Z",
+            "catalog.", "v2/sku/", "prod", "n", "SKU_", "item#", "q-", "key"};
+    private static final int[] SIZES = {1_000, 40_000, 500_000, 2_000_000};
+    private static final double SLACK = 1.25; // rms over 32 samples varies ~±13%
+
+    public static void main(String[] args) {
+        int precision = args.length > 0 ? Integer.parseInt(args[0]) : 14;
+        double expected = 1.04 / Math.sqrt(1 << precision);
+        System.out.printf("===== HyperLogLog accuracy, precision %d (expected standard error %.2f%%) =====%n",
+                precision, expected * 100);
+        System.out.printf("%10s %12s %12s %12s%n", "keys", "rms error", "worst error", "within 2 SE");
+
+        boolean ok = true;
+        for (int n : SIZES) {
+            double sumOfSquares = 0;
+            double worst = 0;
+            int withinTwoSigma = 0;
+            for (String prefix : PREFIXES) {
+                var hll = new HyperLogLog(precision);
+                var key = new StringBuilder(prefix);
+                for (int i = 0; i < n; i++) {
+                    key.setLength(prefix.length());
+                    hll.add(key.append(i));
+                }
+                double error = (hll.estimate() - n) / (double) n;
+                sumOfSquares += error * error;
+                worst = Math.abs(error) > Math.abs(worst) ? error : worst;
+                if (Math.abs(error) <= 2 * expected) {
+                    withinTwoSigma++;
+                }
+            }
+            double rms = Math.sqrt(sumOfSquares / PREFIXES.length);
+            ok &= rms <= SLACK * expected;
+            System.out.printf("%,10d %11.2f%% %+11.2f%% %9d/%d%n",
+                    n, rms * 100, worst * 100, withinTwoSigma, PREFIXES.length);
+        }
+        System.out.println(ok ? "OK: rms error within the expected standard error"
+                : "FAIL: rms error above " + SLACK + " x the expected standard error");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+}
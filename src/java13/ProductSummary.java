@@ -0,0 +1,105 @@
+package java13;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * Single-pass inventory summary.
+ * Generalizes Collectors.teeing(): total, average, min, max, stock value and
+ * count — overall and per category — are all collected in one traversal.
+ * The mutable state merges, so the collector also works on parallel streams.
+ */
+final class ProductSummary {
+
+    //  Running price/stock statistics for one group of products
+    static final class Stats {
+        private long count;
+        private double totalPrice;
+        private double minPrice = Double.POSITIVE_INFINITY;
+        private double maxPrice = Double.NEGATIVE_INFINITY;
+        private double stockValue;
+
+        void accept(double price, int stock) {
+            count++;
+            totalPrice += price;
+            minPrice = Math.min(minPrice, price);
+            maxPrice = Math.max(maxPrice, price);
+            stockValue += price * stock;
+        }
+
+        Stats merge(Stats other) {
+            count += other.count;
+            totalPrice += other.totalPrice;
+            minPrice = Math.min(minPrice, other.minPrice);
+            maxPrice = Math.max(maxPrice, other.maxPrice);
+            stockValue += other.stockValue;
+            return this;
+        }
+
+        long count() { return count; }
+        double totalPrice() { return totalPrice; }
+        double averagePrice() { return count == 0 ? 0.0 : totalPrice / count; }
+        double minPrice() { return count == 0 ? 0.0 : minPrice; }
+        double maxPrice() { return count == 0 ? 0.0 : maxPrice; }
+        double stockValue() { return stockValue; }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, total=$%.2f, avg=$%.2f, min=$%.2f, max=$%.2f, stockValue=$%.2f",
+                    count, totalPrice, averagePrice(), minPrice(), maxPrice(), stockValue);
+        }
+    }
+
+    private final Stats overall = new Stats();
+    private final Map<String, Stats> byCategory = new TreeMap<>();
+
+    private ProductSummary() {
+    }
+
+    /**
+     * Collects every metric in one pass.
+     *
+     * @param price    price of an element
+     * @param stock    units in stock of an element
+     * @param category category used for the per-category breakdown
+     */
+    static <T> Collector<T, ProductSummary, ProductSummary> summarizing(ToDoubleFunction<? super T> price,
+                                                                        ToIntFunction<? super T> stock,
+                                                                        Function<? super T, String> category) {
+        return Collector.of(
+                ProductSummary::new,
+                (summary, item) -> {
+                    double p = price.applyAsDouble(item);
+                    int s = stock.applyAsInt(item);
+                    summary.overall.accept(p, s);
+                    summary.byCategory.computeIfAbsent(category.apply(item), c -> new Stats()).accept(p, s);
+                },
+                ProductSummary::merge,
+                Collector.Characteristics.IDENTITY_FINISH,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private ProductSummary merge(ProductSummary other) {
+        overall.merge(other.overall);
+        other.byCategory.forEach((c, stats) -> byCategory.merge(c, stats, Stats::merge));
+        return this;
+    }
+
+    Stats overall() {
+        return overall;
+    }
+
+    Map<String, Stats> byCategory() {
+        return Collections.unmodifiableMap(byCategory);
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder("Overall: ").append(overall);
+        byCategory.forEach((c, stats) -> sb.append("\n").append(c).append(": ").append(stats));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,146 @@
+package java13;
+
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Mergeable quantile sketch for non-negative values (prices, order sizes).
+ * Values fall into logarithmic buckets, so every quantile is within the
+ * given relative accuracy (e.g. 0.01 = ±1%). Memory is capped at
+ * maxBuckets counters; if the value range needs more, the lowest buckets
+ * are folded into one, so low quantiles lose accuracy first. The default
+ * 2048 buckets at 1% cover values spanning about 17 orders of magnitude.
+ */
+final class QuantileSketch {
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private final int maxBuckets;
+
+    private long[] counts; // counts[i] is the bucket with key offset + i
+    private int offset;
+    private int minKey = Integer.MAX_VALUE;
+    private int maxKey = Integer.MIN_VALUE;
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    QuantileSketch(double relativeAccuracy, int maxBuckets) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+        this.maxBuckets = maxBuckets;
+        this.counts = new long[maxBuckets];
+    }
+
+    QuantileSketch(double relativeAccuracy) {
+        this(relativeAccuracy, 2048);
+    }
+
+    /** Collects a quantile sketch of the values in a stream. */
+    static <T> Collector<T, QuantileSketch, QuantileSketch> summarizing(double relativeAccuracy,
+                                                                        ToDoubleFunction<? super T> value) {
+        return Collector.of(
+                () -> new QuantileSketch(relativeAccuracy),
+                (sketch, item) -> sketch.add(value.applyAsDouble(item)),
+                QuantileSketch::merge,
+                Collector.Characteristics.IDENTITY_FINISH,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    void add(double value) {
+        if (!(value >= 0)) {
+            throw new IllegalArgumentException("Value must be non-negative: " + value);
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (value < MIN_INDEXABLE) {
+            zeroCount++;
+        } else {
+            addToBucket((int) Math.ceil(Math.log(value) / logGamma), 1);
+        }
+    }
+
+    QuantileSketch merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy || other.maxBuckets != maxBuckets) {
+            throw new IllegalArgumentException("Cannot merge sketches with different settings");
+        }
+        count += other.count;
+        zeroCount += other.zeroCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int key = other.minKey; key <= other.maxKey; key++) {
+            long n = other.counts[key - other.offset];
+            if (n > 0) {
+                addToBucket(key, n);
+            }
+        }
+        return this;
+    }
+
+    /** Estimated value at quantile q (0 = min, 0.5 = median, 1 = max). */
+    double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (q * (count - 1));
+        if (rank < zeroCount) {
+            return min;
+        }
+        long seen = zeroCount;
+        for (int key = minKey; key <= maxKey; key++) {
+            seen += counts[key - offset];
+            if (seen > rank) {
+                // bucket midpoint, clamped to the observed range
+                double estimate = 2 * Math.exp(key * logGamma) / (1 + Math.exp(logGamma));
+                return Math.max(min, Math.min(max, estimate));
+            }
+        }
+        return max;
+    }
+
+    long count() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, p50=%.2f, p90=%.2f, p99=%.2f", count, quantile(0.5), quantile(0.9), quantile(0.99));
+    }
+
+    private void addToBucket(int key, long n) {
+        if (key < offset || key >= offset + maxBuckets || minKey > maxKey) {
+            key = rebucket(key);
+        }
+        counts[key - offset] += n;
+        minKey = Math.min(minKey, key);
+        maxKey = Math.max(maxKey, key);
+    }
+
+    // Moves the bucket window so it covers key; folds the lowest buckets if the
+    // range is wider than maxBuckets. Returns the key to use for the new value.
+    private int rebucket(int key) {
+        if (minKey > maxKey) {
+            offset = key - maxBuckets / 2;
+            return key;
+        }
+        int high = Math.max(maxKey, key);
+        int low = Math.max(Math.min(minKey, key), high - maxBuckets + 1);
+        long[] moved = new long[maxBuckets];
+        for (int k = minKey; k <= maxKey; k++) {
+            moved[Math.max(k, low) - low] += counts[k - offset];
+        }
+        counts = moved;
+        offset = low;
+        minKey = Math.max(minKey, low);
+        return Math.max(key, low);
+    }
+}
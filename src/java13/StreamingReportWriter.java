@@ -0,0 +1,108 @@
+package java13;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streaming report writer.
+ * Encodes rows straight into one reusable direct buffer and writes it to a
+ * FileChannel whenever it fills up, so memory stays at the buffer size no
+ * matter how many rows the report has (unlike joining every row into one
+ * String before Files.writeString).
+ */
+final class StreamingReportWriter implements AutoCloseable {
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20; // 1 MB writes
+    // Must hold at least one encoded char (up to 4 bytes in UTF-8), or the
+    // encoder overflows forever; smaller than a few KB is all syscalls anyway
+    static final int MIN_BUFFER_SIZE = 4 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private long rows;
+
+    private StreamingReportWriter(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    static StreamingReportWriter open(Path file) throws IOException {
+        return open(file, DEFAULT_BUFFER_SIZE);
+    }
+
+    static StreamingReportWriter open(Path file, int bufferSize) throws IOException {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("bufferSize must be at least " + MIN_BUFFER_SIZE + ": " + bufferSize);
+        }
+        var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new StreamingReportWriter(channel, bufferSize);
+    }
+
+    /**
+     * Writes one row per element, separated by '\n' (same layout as
+     * Collectors.joining("\n")), and returns the number of rows written.
+     */
+    static <T> long write(Path file, Stream<T> rows, Function<? super T, ? extends CharSequence> format)
+            throws IOException {
+        try (var writer = open(file)) {
+            var it = rows.iterator();
+            while (it.hasNext()) {
+                writer.writeRow(format.apply(it.next()));
+            }
+            return writer.rows();
+        }
+    }
+
+    /** Appends a row; rows are separated by '\n' with no trailing newline. */
+    void writeRow(CharSequence row) throws IOException {
+        if (rows++ > 0) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put((byte) '\n');
+        }
+        var chars = CharBuffer.wrap(row);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                flush();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        encoder.reset();
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
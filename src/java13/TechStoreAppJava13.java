@@ -50,13 +50,7 @@ public class TechStoreAppJava13 {
         // ============================================================
         System.out.println("\n Product Categories:");
         for (var p : products) {
-            var category = switch (p.name) {
-                case "MacBook Pro", "Dell XPS" -> "Laptop";
-                case "Keyboard", "Mouse" -> "Accessory";
-                case "Monitor" -> "Display";
-                default -> "Other";
-            };
-            System.out.println(" " + p.name + " -> " + category);
+            System.out.println(" " + p.name + " -> " + categoryOf(p));
         }
 
         // ============================================================
@@ -96,25 +90,34 @@ public class TechStoreAppJava13 {
                 .collect(Collectors.toList());
         System.out.println("\n Distinct product names: " + distinctProducts);
 
+        // Fixed-memory sketches: approximate distinct count and price percentiles
+        var distinctNames = products.stream()
+                .collect(HyperLogLog.distinctCounting(14, p -> p.name));
+        var priceQuantiles = products.stream()
+                .collect(QuantileSketch.summarizing(0.01, p -> p.price));
+        System.out.println(" Distinct names (HyperLogLog): " + distinctNames);
+        System.out.println(" Price percentiles (±1%): " + priceQuantiles);
+
         // ============================================================
-        // 7️⃣ Teeing-like Summary using Java 13 constructs
+        // 7️⃣ Teeing-like Summary — one pass over the products
         // ============================================================
+        var stats = products.stream()
+                .collect(ProductSummary.summarizing(p -> p.price, p -> p.stock, TechStoreAppJava13::categoryOf));
         var summary = Map.of(
-                "Total Value", products.stream().mapToDouble(p -> p.price * p.stock).sum(),
-                "Average Price", products.stream().mapToDouble(p -> p.price).average().orElse(0)
+                "Total Value", stats.overall().stockValue(),
+                "Average Price", stats.overall().averagePrice()
         );
         System.out.println("\n Inventory Summary: " + summary);
+        System.out.println(" Per category:\n" + stats);
 
         // ============================================================
         // 8️⃣ File Handling (Java 13 FileSystem improvements)
         // ============================================================
         var tempFile = Files.createTempFile("techstore-java13-", ".txt");
-        var reportContent = products.stream()
-                .map(Product::toString)
-                .collect(Collectors.joining("\n"));
-        Files.writeString(tempFile, reportContent);
+        StreamingReportWriter.write(tempFile, products.stream(), Product::toString);
         System.out.println("\n Product report written to temp file: " + tempFile);
-        System.out.println("File content preview:\n" + Files.readString(tempFile));
+        System.out.println("File content preview:\n" + ReportPreview.head(tempFile, 3, 4096));
+        System.out.println("Last line: " + ReportPreview.tail(tempFile, 1, 4096));
         Files.deleteIfExists(tempFile);
 
         // ============================================================
@@ -134,4 +137,14 @@ public class TechStoreAppJava13 {
 
         System.out.println("\n TechStore Java 13 demo complete!");
     }
+
+    //  Switch Expression for product category
+    static String categoryOf(Product p) {
+        return switch (p.name) {
+            case "MacBook Pro", "Dell XPS" -> "Laptop";
+            case "Keyboard", "Mouse" -> "Accessory";
+            case "Monitor" -> "Display";
+            default -> "Other";
+        };
+    }
 }
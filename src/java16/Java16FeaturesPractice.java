@@ -144,6 +144,8 @@ public class Java16FeaturesPractice {
     // =========================================================
     // JEP 389 — Foreign Linker API (Incubator)
     // Enables calling native code (like C libraries) safely without JNI.
+    // Its companion, the Foreign Memory API, became final in Java 22;
+    // see java22.OffHeapCatalog for product rows stored off-heap.
     // =========================================================
     static void foreignLinkerAPINote() {
         System.out.println("\n Foreign Linker API (Incubator)");
@@ -153,6 +155,7 @@ public class Java16FeaturesPractice {
     // =========================================================
     // JEP 338 — Vector API (Incubator)
     // Improves performance for data-parallel computations.
+    // See java22.PriceKernels for price/stock kernels built on it.
     // =========================================================
     static void vectorAPINote() {
         System.out.println("\n Vector API (Incubator)");
@@ -0,0 +1,147 @@
+package java16;
+
+/**
+ * Search-as-you-type index over product names.
+ */
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// =======================================================
+// ProductAutocomplete — radix trie over lower-cased product names
+// Chains of single-child nodes are merged into one edge label, so the
+// trie has at most two nodes per distinct name instead of one per
+// character. Every node caches the best `maxResults` products below it,
+// so a query walks only the prefix characters and returns that cached list.
+// Children are kept in sorted arrays keyed by their first label char.
+// =======================================================
+class ProductAutocomplete {
+    private final int maxResults;
+    private final Comparator<Product> ranking;
+    private final Node root = new Node("");
+
+    ProductAutocomplete(int maxResults, Comparator<Product> ranking) {
+        if (maxResults <= 0) {
+            throw new IllegalArgumentException("maxResults must be positive: " + maxResults);
+        }
+        this.maxResults = maxResults;
+        this.ranking = ranking;
+    }
+
+    // Default ranking: most expensive first
+    ProductAutocomplete(int maxResults) {
+        this(maxResults, Comparator.comparingDouble(Product::price).reversed());
+    }
+
+    void add(Product product) {
+        String key = product.name().toLowerCase(Locale.ROOT);
+        Node node = root;
+        node.offer(product);
+        int i = 0;
+        while (i < key.length()) {
+            int at = Arrays.binarySearch(node.firsts, key.charAt(i));
+            if (at < 0) {
+                Node leaf = new Node(key.substring(i));
+                leaf.offer(product);
+                node.insertChild(-at - 1, leaf);
+                return;
+            }
+            Node child = node.children[at];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                child = split(node, at, common);
+            }
+            child.offer(product);
+            node = child;
+            i += common;
+        }
+    }
+
+    /** Top-k products whose lower-cased name starts with prefix, best first. */
+    List<Product> complete(String prefix, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        String key = prefix.toLowerCase(Locale.ROOT);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int at = Arrays.binarySearch(node.firsts, key.charAt(i));
+            if (at < 0) {
+                return List.of();
+            }
+            node = node.children[at];
+            // The prefix may end inside this edge: everything below still matches
+            int n = Math.min(node.label.length(), key.length() - i);
+            if (!key.regionMatches(i, node.label, 0, n)) {
+                return List.of();
+            }
+            i += n;
+        }
+        return List.of(Arrays.copyOf(node.top, Math.min(k, node.topSize)));
+    }
+
+    // Splits parent's child `at` after `common` label chars and returns the new middle node,
+    // which covers exactly the same products as the child, so it starts with a copy of its top list.
+    private Node split(Node parent, int at, int common) {
+        Node child = parent.children[at];
+        Node middle = new Node(child.label.substring(0, common));
+        middle.top = child.top.clone();
+        middle.topSize = child.topSize;
+        child.label = child.label.substring(common);
+        middle.insertChild(0, child);
+        parent.children[at] = middle;
+        return middle;
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int n = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < n && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private final class Node {
+        private String label;
+        private char[] firsts = new char[0];
+        private Node[] children = new Node[0];
+        private Product[] top = new Product[0];
+        private int topSize;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void insertChild(int at, Node node) {
+            char[] grownFirsts = Arrays.copyOf(firsts, firsts.length + 1);
+            System.arraycopy(grownFirsts, at, grownFirsts, at + 1, firsts.length - at);
+            grownFirsts[at] = node.label.charAt(0);
+            Node[] grown = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(grown, at, grown, at + 1, children.length - at);
+            grown[at] = node;
+            firsts = grownFirsts;
+            children = grown;
+        }
+
+        // Insertion into a bounded, sorted array: O(maxResults) per node
+        void offer(Product product) {
+            if (topSize == maxResults && ranking.compare(product, top[topSize - 1]) >= 0) {
+                return;
+            }
+            if (top.length < maxResults && topSize == top.length) {
+                top = Arrays.copyOf(top, Math.min(maxResults, Math.max(1, top.length * 2)));
+            }
+            int i = Math.min(topSize, maxResults - 1);
+            while (i > 0 && ranking.compare(product, top[i - 1]) < 0) {
+                top[i] = top[i - 1];
+                i--;
+            }
+            top[i] = product;
+            topSize = Math.min(topSize + 1, maxResults);
+        }
+    }
+}
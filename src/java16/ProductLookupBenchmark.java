@@ -0,0 +1,86 @@
+package java16;
+
+/**
+ * findProduct latency: the original linear scan (stream + equalsIgnoreCase
+ * + findFirst) against ProductNameIndex, from 1K to 10M products.
+ * Lookups mix three spellings: the name as added, an upper-case variant
+ * (served by the normalized map) and a name that does not exist.
+ * The scan does fewer lookups on large catalogs so every size takes
+ * about the same time.
+ *
+ *   java -Xmx4g java16.ProductLookupBenchmark [maxProducts]
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+public class ProductLookupBenchmark {
+    private static final int[] SIZES = {1_000, 100_000, 1_000_000, 10_000_000};
+    private static final long SCAN_BUDGET = 200_000_000L; // product comparisons per scan run
+    private static final int INDEX_LOOKUPS = 3_000_000;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int maxProducts = args.length > 0 ? Integer.parseInt(args[0]) : SIZES[SIZES.length - 1];
+        System.out.println("=====  findProduct: linear scan vs. name index =====");
+        System.out.printf("%12s %16s %16s %10s%n", "products", "scan (ns/op)", "index (ns/op)", "speed-up");
+        for (int size : SIZES) {
+            if (size > maxProducts) {
+                break;
+            }
+            List<Product> products = new ArrayList<>(size);
+            ProductNameIndex index = new ProductNameIndex();
+            for (int i = 0; i < size; i++) {
+                Product p = new Product("Product " + i, i % 5_000, Category.ELECTRONICS);
+                products.add(p);
+                index.add(p);
+            }
+            String[] queries = queries(size);
+
+            int scanLookups = (int) Math.max(30, Math.min(INDEX_LOOKUPS, SCAN_BUDGET / size));
+            timeScan(products, queries, scanLookups); // warm-up
+            double scanNanos = timeScan(products, queries, scanLookups);
+            timeIndex(index, queries, INDEX_LOOKUPS); // warm-up
+            double indexNanos = timeIndex(index, queries, INDEX_LOOKUPS);
+            System.out.printf("%,12d %,16.1f %,16.1f %9.0fx%n", size, scanNanos, indexNanos, scanNanos / indexNanos);
+        }
+    }
+
+    // Exact, upper-case and missing names, spread over the catalog
+    private static String[] queries(int size) {
+        String[] queries = new String[3 * 256];
+        for (int i = 0; i < 256; i++) {
+            String name = "Product " + (int) ((long) i * 7919 % size);
+            queries[3 * i] = name;
+            queries[3 * i + 1] = name.toUpperCase(Locale.ROOT);
+            queries[3 * i + 2] = "Missing " + i;
+        }
+        return queries;
+    }
+
+    // The pre-index TechStoreService.findProduct
+    private static Optional<Product> scan(List<Product> products, String name) {
+        return products.stream()
+                .filter(p -> p.name().equalsIgnoreCase(name))
+                .findFirst();
+    }
+
+    private static double timeScan(List<Product> products, String[] queries, int lookups) {
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            sink = scan(products, queries[i % queries.length]);
+        }
+        return (System.nanoTime() - start) / (double) lookups;
+    }
+
+    private static double timeIndex(ProductNameIndex index, String[] queries, int lookups) {
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            sink = index.find(queries[i % queries.length]);
+        }
+        return (System.nanoTime() - start) / (double) lookups;
+    }
+}
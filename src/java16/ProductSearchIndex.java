@@ -0,0 +1,202 @@
+package java16;
+
+/**
+ * Full-text search over product names and categories.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// =======================================================
+// ProductSearchIndex — inverted index over tokens and trigrams
+// Each product gets a doc id (its insertion position). Posting lists store
+// ascending doc ids as delta-encoded varints, and multi-term queries
+// intersect them, so a search never scans the whole catalog.
+//   - words shorter than 3 chars match whole tokens ("hp", "4k")
+//   - longer words match any token containing them ("sung" → "samsung"),
+//     via trigram intersection followed by a check of the candidates only
+// =======================================================
+class ProductSearchIndex {
+    private final List<Product> docs = new ArrayList<>();
+    private final Map<String, PostingList> tokenPostings = new HashMap<>();
+    private final Map<String, PostingList> trigramPostings = new HashMap<>();
+
+    void add(Product product) {
+        int doc = docs.size();
+        docs.add(product);
+        for (String token : tokens(product)) {
+            tokenPostings.computeIfAbsent(token, t -> new PostingList()).add(doc);
+            for (int i = 0; i + 3 <= token.length(); i++) {
+                trigramPostings.computeIfAbsent(token.substring(i, i + 3), t -> new PostingList()).add(doc);
+            }
+        }
+    }
+
+    /** Products matching every word of the query, in insertion order. */
+    List<Product> search(String query) {
+        String[] words = split(query);
+        if (words.length == 0) {
+            return List.of();
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (String word : words) {
+            if (word.length() < 3) {
+                PostingList postings = tokenPostings.get(word);
+                if (postings == null) {
+                    return List.of();
+                }
+                lists.add(postings);
+            } else {
+                for (int i = 0; i + 3 <= word.length(); i++) {
+                    PostingList postings = trigramPostings.get(word.substring(i, i + 3));
+                    if (postings == null) {
+                        return List.of();
+                    }
+                    lists.add(postings);
+                }
+            }
+        }
+        List<Product> result = new ArrayList<>();
+        for (int doc : intersect(lists)) {
+            Product product = docs.get(doc);
+            // Trigrams can match across different tokens; confirm on the candidate only
+            if (matchesAll(product, words)) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    private static boolean matchesAll(Product product, String[] words) {
+        String[] tokens = tokens(product);
+        for (String word : words) {
+            boolean found = false;
+            for (String token : tokens) {
+                if (word.length() < 3 ? token.equals(word) : token.contains(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Leapfrog intersection, driven by the shortest list
+    private static int[] intersect(List<PostingList> lists) {
+        lists.sort(Comparator.comparingInt(PostingList::count));
+        PostingList.Cursor[] cursors = new PostingList.Cursor[lists.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = lists.get(i).cursor();
+        }
+        int[] out = new int[lists.get(0).count()];
+        int n = 0;
+        int candidate = cursors[0].next();
+        while (candidate >= 0) {
+            boolean inAll = true;
+            for (int i = 1; i < cursors.length; i++) {
+                int doc = cursors[i].advanceTo(candidate);
+                if (doc < 0) {
+                    return Arrays.copyOf(out, n);
+                }
+                if (doc != candidate) {
+                    candidate = cursors[0].advanceTo(doc);
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) {
+                out[n++] = candidate;
+                candidate = cursors[0].next();
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static String[] tokens(Product product) {
+        return split(product.name() + " " + product.category().name());
+    }
+
+    private static String[] split(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    // =======================================================
+    // PostingList — ascending doc ids, delta + varint encoded
+    // =======================================================
+    static final class PostingList {
+        private byte[] data = new byte[8];
+        private int length;
+        private int count;
+        private int lastDoc = -1;
+
+        void add(int doc) {
+            if (doc == lastDoc) {
+                return; // same token/trigram twice in one product
+            }
+            int delta = doc - lastDoc;
+            lastDoc = doc;
+            count++;
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((delta & ~0x7F) != 0) {
+                data[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+        }
+
+        int count() {
+            return count;
+        }
+
+        Cursor cursor() {
+            return new Cursor();
+        }
+
+        final class Cursor {
+            private int pos;
+            private int doc = -1;
+
+            /** Next doc id, or -1 when exhausted. */
+            int next() {
+                if (pos >= length) {
+                    return -1;
+                }
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[pos++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+                return doc;
+            }
+
+            /** First doc id >= target, or -1 when exhausted. */
+            int advanceTo(int target) {
+                int d = doc;
+                while (d < target) {
+                    d = next();
+                    if (d < 0) {
+                        return -1;
+                    }
+                }
+                return d;
+            }
+        }
+    }
+}
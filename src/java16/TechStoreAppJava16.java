@@ -8,7 +8,10 @@ package java16;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 public class TechStoreAppJava16 {
@@ -18,10 +21,12 @@ public class TechStoreAppJava16 {
 
         TechStoreService storeService = new TechStoreService();
 
-        // Add some sample products
-        storeService.addProduct(new Product("Laptop", 1500.0, Category.ELECTRONICS));
-        storeService.addProduct(new Product("Mouse", 25.5, Category.ACCESSORIES));
-        storeService.addProduct(new Product("Keyboard", 45.0, Category.ACCESSORIES));
+        // Initial load goes through addAll: the price index is sorted once, not per insert
+        storeService.addAll(List.of(
+                new Product("Laptop", 1500.0, Category.ELECTRONICS),
+                new Product("Mouse", 25.5, Category.ACCESSORIES),
+                new Product("Keyboard", 45.0, Category.ACCESSORIES)
+        ));
         storeService.addProduct(new Product("Monitor", 300.0, Category.ELECTRONICS));
 
         // List all products
@@ -34,9 +39,19 @@ public class TechStoreAppJava16 {
                 () -> System.out.println("Product not found.")
         );
 
+        // Autocomplete by name prefix
+        System.out.println("\n Autocomplete 'mo':");
+        storeService.autocomplete("mo", 5).forEach(System.out::println);
+
+        // Full-text search over names and categories
+        System.out.println("\n Searching 'accessories board':");
+        storeService.search("accessories board").forEach(System.out::println);
+
         // Filter expensive products
         System.out.println("\n Products above $100:");
         storeService.filterExpensiveProducts(100).forEach(System.out::println);
+        storeService.filterExpensiveProducts(100); // repeat query: served from the result cache
+        System.out.println("Result cache: " + storeService.cacheStats());
 
         // Show user roles using sealed classes
         System.out.println("\n User Roles:");
@@ -121,31 +136,164 @@ final class Guest extends User {
 
 // =======================================================
 // TechStoreService — uses Stream API and Records
+// Name lookups go through ProductNameIndex, so findProduct() no longer
+// scans the whole product list.
 // =======================================================
 class TechStoreService {
+    static final int AUTOCOMPLETE_LIMIT = 10;
+
     private final List<Product> products = new ArrayList<>();
+    private final ProductNameIndex nameIndex = new ProductNameIndex();
+    private final PriceIndex priceIndex = new PriceIndex();
+    private final ProductAutocomplete autocomplete = new ProductAutocomplete(AUTOCOMPLETE_LIMIT);
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+    private final QueryResultCache cache = new QueryResultCache(1_000);
 
     public void addProduct(Product product) {
-        products.add(product);
+        priceIndex.add(product);
+        index(product);
+        cache.invalidateAll();
         System.out.println(" Added product: " + product.name());
     }
 
+    // Bulk load (e.g. the initial catalog): one price-index sort instead of
+    // an O(n) shifting insert per product
+    public void addAll(List<Product> batch) {
+        priceIndex.addAll(batch);
+        batch.forEach(this::index);
+        cache.invalidateAll();
+        System.out.println(" Loaded " + batch.size() + " products");
+    }
+
+    private void index(Product product) {
+        products.add(product);
+        autocomplete.add(product);
+        searchIndex.add(product);
+        nameIndex.add(product);
+    }
+
     public void displayProducts() {
         System.out.println("\n Product List:");
         products.forEach(System.out::println);
     }
 
     public Optional<Product> findProduct(String name) {
-        return products.stream()
-                .filter(p -> p.name().equalsIgnoreCase(name))
-                .findFirst();
+        return nameIndex.find(name);
     }
 
     public List<Product> filterExpensiveProducts(double minPrice) {
-        // New Stream.toList() (Java 16)
-        return products.stream()
-                .filter(p -> p.price() > minPrice)
-                .sorted(Comparator.comparing(Product::price).reversed())
-                .toList();
+        return cache.get("filterExpensiveProducts", minPrice, () -> priceIndex.above(minPrice));
+    }
+
+    public QueryResultCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    public List<Product> filterByPriceRange(double minPrice, double maxPrice) {
+        return priceIndex.between(minPrice, maxPrice);
+    }
+
+    public List<Product> topExpensiveProducts(int n) {
+        return priceIndex.top(n);
+    }
+
+    // Full-text search over name and category words, e.g. "mechanical keyboard"
+    public List<Product> search(String query) {
+        return searchIndex.search(query);
+    }
+
+    // Search-as-you-type: up to AUTOCOMPLETE_LIMIT names, most expensive first
+    public List<Product> autocomplete(String prefix, int k) {
+        return autocomplete.complete(prefix, k);
+    }
+}
+
+// =======================================================
+//  ProductNameIndex — case-insensitive lookup by product name
+// Two hash maps replace the linear findFirst() scan: the name as
+// added (hits for the usual spelling, no allocation) and its lower-case
+// form (any other spelling). Both map to a pre-built Optional.
+// See ProductLookupBenchmark for scan vs. index latency.
+// =======================================================
+class ProductNameIndex {
+    private final Map<String, Optional<Product>> byName = new HashMap<>();
+    private final Map<String, Optional<Product>> byExactName = new HashMap<>();
+
+    void add(Product product) {
+        // The first product with a given name wins, like findFirst() did;
+        // its exact spelling maps to the same Optional
+        Optional<Product> first = byName.computeIfAbsent(normalize(product.name()), k -> Optional.of(product));
+        byExactName.putIfAbsent(product.name(), first);
+    }
+
+    Optional<Product> find(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Optional<Product> hit = byExactName.get(name);
+        if (hit != null) {
+            return hit;
+        }
+        // Other spellings fall back to the normalized key
+        return byName.getOrDefault(normalize(name), Optional.empty());
+    }
+
+    // toLowerCase returns the same instance when the name is already lower case,
+    // so only mixed-case input that missed the exact index allocates a key.
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
+
+// =======================================================
+//  PriceIndex — products kept sorted by price, highest first
+// Inserts use binary search, so range and top-N queries are
+// plain sub-lists and never need to re-sort the catalog.
+// A single insert still shifts the list (O(n)); bulk loads use addAll.
+// =======================================================
+class PriceIndex {
+    private final List<Product> byPriceDesc = new ArrayList<>();
+
+    void add(Product p) {
+        // Insert after every product with a price >= p.price(),
+        // so equal prices keep insertion order (like a stable sort).
+        byPriceDesc.add(countAtLeast(p.price(), true), p);
+    }
+
+    void addAll(List<Product> batch) {
+        // Append then stable-sort: equal prices still keep insertion order
+        byPriceDesc.addAll(batch);
+        byPriceDesc.sort(Comparator.comparingDouble(Product::price).reversed());
+    }
+
+    // price > minPrice, highest first
+    List<Product> above(double minPrice) {
+        return List.copyOf(byPriceDesc.subList(0, countAtLeast(minPrice, false)));
+    }
+
+    // minPrice <= price <= maxPrice, highest first
+    List<Product> between(double minPrice, double maxPrice) {
+        int from = countAtLeast(maxPrice, false);
+        int to = countAtLeast(minPrice, true);
+        return from < to ? List.copyOf(byPriceDesc.subList(from, to)) : List.of();
+    }
+
+    List<Product> top(int n) {
+        return List.copyOf(byPriceDesc.subList(0, Math.max(0, Math.min(n, byPriceDesc.size()))));
+    }
+
+    // Number of leading products priced >= price (inclusive) or > price (exclusive).
+    private int countAtLeast(double price, boolean inclusive) {
+        int lo = 0, hi = byPriceDesc.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double midPrice = byPriceDesc.get(mid).price();
+            if (inclusive ? midPrice >= price : midPrice > price) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
     }
 }
@@ -0,0 +1,226 @@
+package java17;
+
+/**
+ * Binary catalog snapshot for fast startup.
+ * The file is memory-mapped, so opening it costs a few syscalls instead of
+ * parsing text and calling constructors for every product. Products are
+ * only materialized when a row is read.
+ *
+ * File layout (little-endian, version 1):
+ *   header  (64 bytes)  magic, version, row count, index slots, section offsets/lengths
+ *   rows    (24 bytes each)  price double | name offset long | name length int | category ordinal int
+ *   strings UTF-8 names, concatenated
+ *   index   int[indexSlots] open-addressing table of (row + 1) keyed by lower-cased name, 0 = empty
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+final class CatalogSnapshot {
+    static final int MAGIC = 0x54534353; // "TSCS"
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int ROW_SIZE = 24;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final int rowCount;
+    private final int indexSlots;
+    private final ByteBuffer rows;
+    private final ByteBuffer strings;
+    private final ByteBuffer index;
+
+    private CatalogSnapshot(int rowCount, int indexSlots, ByteBuffer rows, ByteBuffer strings, ByteBuffer index) {
+        this.rowCount = rowCount;
+        this.indexSlots = indexSlots;
+        this.rows = rows;
+        this.strings = strings;
+        this.index = index;
+    }
+
+    // =======================================================
+    //  Writing
+    // =======================================================
+    static void write(Path file, List<Product> products) throws IOException {
+        int n = products.size();
+        int slots = Integer.highestOneBit(Math.max(2, n) * 2 - 1) << 1;
+        ByteBuffer rowBuffer = ByteBuffer.allocate(Math.multiplyExact(n, ROW_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer indexBuffer = ByteBuffer.allocate(Math.multiplyExact(slots, Integer.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        var stringTable = new ByteArrayOutputStream();
+
+        for (int row = 0; row < n; row++) {
+            Product p = products.get(row);
+            byte[] name = p.name().getBytes(StandardCharsets.UTF_8);
+            rowBuffer.putDouble(p.price())
+                    .putLong(stringTable.size())
+                    .putInt(name.length)
+                    .putInt(p.category().ordinal());
+            stringTable.write(name);
+
+            // first product wins for duplicate names, like a linear search would
+            String key = key(p.name());
+            int slot = hash(key) & (slots - 1);
+            while (true) {
+                int existing = indexBuffer.getInt(slot * Integer.BYTES);
+                if (existing == 0) {
+                    indexBuffer.putInt(slot * Integer.BYTES, row + 1);
+                    break;
+                }
+                if (key(products.get(existing - 1).name()).equals(key)) {
+                    break;
+                }
+                slot = (slot + 1) & (slots - 1);
+            }
+        }
+        rowBuffer.flip();
+
+        long rowsOffset = HEADER_SIZE;
+        long stringsOffset = rowsOffset + rowBuffer.limit();
+        long indexOffset = stringsOffset + stringTable.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC).putInt(VERSION).putInt(n).putInt(slots)
+                .putLong(rowsOffset).putLong(stringsOffset).putLong(stringTable.size()).putLong(indexOffset);
+        header.clear();
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            writeFully(channel, rowBuffer);
+            writeFully(channel, ByteBuffer.wrap(stringTable.toByteArray()));
+            writeFully(channel, indexBuffer);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // =======================================================
+    //  Loading — maps each section, reads nothing else up front
+    // =======================================================
+    static CatalogSnapshot open(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Not a catalog snapshot (too small): " + file);
+            }
+            ByteBuffer header = map(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot (bad magic): " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            int rowCount = header.getInt();
+            int slots = header.getInt();
+            long rowsOffset = header.getLong();
+            long stringsOffset = header.getLong();
+            long stringsLength = header.getLong();
+            long indexOffset = header.getLong();
+            long rowsLength = (long) rowCount * ROW_SIZE;
+            long indexLength = (long) slots * Integer.BYTES;
+            if (rowCount < 0 || Integer.bitCount(slots) != 1
+                    || rowsOffset + rowsLength > stringsOffset
+                    || stringsOffset + stringsLength > indexOffset
+                    || indexOffset + indexLength > fileSize) {
+                throw new IOException("Corrupt catalog snapshot header: " + file);
+            }
+            // The mappings stay valid after the channel is closed
+            return new CatalogSnapshot(rowCount, slots,
+                    map(channel, rowsOffset, rowsLength),
+                    map(channel, stringsOffset, stringsLength),
+                    map(channel, indexOffset, indexLength));
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot section larger than 2 GB (" + length + " bytes)");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // =======================================================
+    //  Reading
+    // =======================================================
+    int size() {
+        return rowCount;
+    }
+
+    /** Materializes one row as a Product record. */
+    Product get(int row) {
+        return new Product(name(row), price(row), category(row));
+    }
+
+    double price(int row) {
+        return rows.getDouble(rowOffset(row));
+    }
+
+    Category category(int row) {
+        return CATEGORIES[rows.getInt(rowOffset(row) + 20)];
+    }
+
+    String name(int row) {
+        int base = rowOffset(row);
+        int offset = Math.toIntExact(rows.getLong(base + 8));
+        byte[] bytes = new byte[rows.getInt(base + 16)];
+        strings.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Case-insensitive name lookup through the index section. */
+    Optional<Product> find(String name) {
+        String key = key(name);
+        int slot = hash(key) & (indexSlots - 1);
+        while (true) {
+            int entry = index.getInt(slot * Integer.BYTES);
+            if (entry == 0) {
+                return Optional.empty();
+            }
+            if (key(name(entry - 1)).equals(key)) {
+                return Optional.of(get(entry - 1));
+            }
+            slot = (slot + 1) & (indexSlots - 1);
+        }
+    }
+
+    void forEach(Consumer<Product> action) {
+        for (int row = 0; row < rowCount; row++) {
+            action.accept(get(row));
+        }
+    }
+
+    private int rowOffset(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range [0, " + rowCount + ")");
+        }
+        return row * ROW_SIZE;
+    }
+
+    // Hashing and matching both use this key. equalsIgnoreCase is not
+    // equivalent to comparing lower-cased names (e.g. dotted/dotless I,
+    // Kelvin sign K), so mixing the two could miss an indexed name.
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,332 @@
+package java17;
+
+/**
+ * Parallel bulk importer for CSV/TSV product files (name, price, category).
+ * The file is split into byte ranges that end on line boundaries, each range
+ * is memory-mapped and parsed on its own thread straight from the bytes, and
+ * all parsed products are handed to StoreService.addAll() in one step.
+ *
+ *   var result = CsvProductImporter.csv().importInto(store, Path.of("catalog.csv"));
+ *
+ * Price and category are decoded from bytes without building Strings; the
+ * only String per row is the product name itself. Double-quoted fields
+ * ("a, b" and "" escapes) are supported. A first line whose first field is
+ * "name" is treated as a header. Malformed lines are counted and skipped.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+final class CsvProductImporter {
+    private static final long MAX_CHUNK_BYTES = 1L << 30; // a mapping must stay under 2 GB
+    private static final int MAX_ERROR_SAMPLES = 10;
+    private static final Category[] CATEGORIES = Category.values();
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    record ImportResult(int imported, int malformed, List<String> errorSamples, long elapsedNanos) {
+        double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : imported * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("imported=%d, malformed=%d, %.0f rows/s%s", imported, malformed, rowsPerSecond(),
+                    errorSamples.isEmpty() ? "" : ", first errors: " + errorSamples);
+        }
+    }
+
+    private final byte delimiter;
+    private final int parallelism;
+
+    CsvProductImporter(char delimiter, int parallelism) {
+        this.delimiter = (byte) delimiter;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    static CsvProductImporter csv() {
+        return new CsvProductImporter(',', Runtime.getRuntime().availableProcessors());
+    }
+
+    static CsvProductImporter tsv() {
+        return new CsvProductImporter('\t', Runtime.getRuntime().availableProcessors());
+    }
+
+    ImportResult importInto(StoreService store, Path file) throws IOException {
+        long start = System.nanoTime();
+        List<ChunkResult> chunks;
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            chunks = IntStream.range(0, bounds.length - 1)
+                    .parallel()
+                    .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1], i == 0))
+                    .toList();
+        }
+
+        List<Product> products = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int malformed = 0;
+        for (ChunkResult chunk : chunks) {
+            if (chunk.failure() != null) {
+                throw chunk.failure();
+            }
+            products.addAll(chunk.products());
+            malformed += chunk.malformed();
+            for (String e : chunk.errors()) {
+                if (errors.size() < MAX_ERROR_SAMPLES) {
+                    errors.add(e);
+                }
+            }
+        }
+        store.addAll(products); // single publish step
+        return new ImportResult(products.size(), malformed, List.copyOf(errors), System.nanoTime() - start);
+    }
+
+    // =======================================================
+    //  Chunking — split points moved forward to the next '\n'
+    // =======================================================
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(parallelism, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        chunks = (int) Math.max(1, Math.min(chunks, size / 64 + 1)); // tiny files: one chunk
+        long[] bounds = new long[chunks + 1];
+        bounds[chunks] = size;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunks; i++) {
+            long pos = Math.max(bounds[i - 1], size * i / chunks);
+            bounds[i] = nextLineStart(channel, pos, size, probe);
+        }
+        return bounds;
+    }
+
+    private static long nextLineStart(FileChannel channel, long pos, long size, ByteBuffer probe) throws IOException {
+        while (pos < size) {
+            probe.clear();
+            int read = channel.read(probe, pos);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    // =======================================================
+    //  Parsing one chunk
+    // =======================================================
+    private record ChunkResult(List<Product> products, int malformed, List<String> errors, IOException failure) {
+    }
+
+    private ChunkResult parseChunk(FileChannel channel, long from, long to, boolean first) {
+        List<Product> products = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int malformed = 0;
+        if (to - from > MAX_CHUNK_BYTES * 2) {
+            return new ChunkResult(products, 0, errors,
+                    new IOException("Line-aligned chunk too large to map: " + (to - from) + " bytes"));
+        }
+        MappedByteBuffer buf;
+        try {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            return new ChunkResult(products, 0, errors, e);
+        }
+        int limit = buf.limit();
+        int lineStart = 0;
+        boolean checkHeader = first;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buf.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && buf.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart && !(checkHeader && isHeader(buf, lineStart, contentEnd))) {
+                String error = parseLine(buf, lineStart, contentEnd, products);
+                if (error != null) {
+                    malformed++;
+                    if (errors.size() < MAX_ERROR_SAMPLES) {
+                        errors.add("byte " + (from + lineStart) + ": " + error);
+                    }
+                }
+            }
+            checkHeader = false;
+            lineStart = lineEnd + 1;
+        }
+        return new ChunkResult(products, malformed, errors, null);
+    }
+
+    // Header line: first field is exactly "name"
+    private boolean isHeader(ByteBuffer buf, int start, int end) {
+        return startsWithIgnoreCase(buf, start, end, "name")
+                && (end - start == 4 || buf.get(start + 4) == delimiter);
+    }
+
+    /** Parses one line into products; returns an error message, or null on success. */
+    private String parseLine(ByteBuffer buf, int start, int end, List<Product> out) {
+        // field 1: name (may be quoted)
+        String name;
+        int pos;
+        if (buf.get(start) == '"') {
+            var sb = new StringBuilder();
+            int i = start + 1;
+            int segment = i;
+            while (true) {
+                if (i >= end) {
+                    return "unterminated quoted name";
+                }
+                if (buf.get(i) == '"') {
+                    sb.append(decode(buf, segment, i));
+                    if (i + 1 < end && buf.get(i + 1) == '"') {
+                        sb.append('"');
+                        i += 2;
+                        segment = i;
+                        continue;
+                    }
+                    i++;
+                    break;
+                }
+                i++;
+            }
+            if (i >= end || buf.get(i) != delimiter) {
+                return "expected delimiter after quoted name";
+            }
+            name = sb.toString();
+            pos = i + 1;
+        } else {
+            int d = indexOf(buf, start, end, delimiter);
+            if (d < 0) {
+                return "expected 3 fields";
+            }
+            name = decode(buf, start, d).strip();
+            pos = d + 1;
+        }
+        if (name.isEmpty()) {
+            return "empty name";
+        }
+
+        // field 2: price
+        int d = indexOf(buf, pos, end, delimiter);
+        if (d < 0) {
+            return "expected 3 fields";
+        }
+        double price = parsePrice(buf, pos, d);
+        if (Double.isNaN(price)) {
+            return "invalid price";
+        }
+
+        // field 3: category
+        Category category = parseCategory(buf, d + 1, end);
+        if (category == null) {
+            return "unknown category";
+        }
+        out.add(new Product(name, price, category));
+        return null;
+    }
+
+    // Decimal price straight from bytes; NaN if malformed. Exact for up to
+    // 15 significant digits, otherwise falls back to Double.parseDouble.
+    private static double parsePrice(ByteBuffer buf, int start, int end) {
+        while (start < end && isBlank(buf.get(start))) start++;
+        while (end > start && isBlank(buf.get(end - 1))) end--;
+        boolean negative = start < end && buf.get(start) == '-';
+        long mantissa = 0;
+        int significantDigits = 0;
+        int fractionDigits = 0;
+        boolean sawDigit = false;
+        boolean dot = false;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            byte b = buf.get(i);
+            if (b >= '0' && b <= '9') {
+                sawDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    if (++significantDigits > 15) {
+                        return slowParse(buf, start, end);
+                    }
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (dot) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else if (b == 'e' || b == 'E') {
+                return slowParse(buf, start, end); // scientific notation
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (!sawDigit) {
+            return Double.NaN;
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length) {
+            return slowParse(buf, start, end);
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static double slowParse(ByteBuffer buf, int start, int end) {
+        try {
+            return Double.parseDouble(decode(buf, start, end));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static Category parseCategory(ByteBuffer buf, int start, int end) {
+        while (start < end && isBlank(buf.get(start))) start++;
+        while (end > start && isBlank(buf.get(end - 1))) end--;
+        for (Category c : CATEGORIES) {
+            String n = c.name();
+            if (n.length() == end - start && startsWithIgnoreCase(buf, start, end, n)) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWithIgnoreCase(ByteBuffer buf, int start, int end, String ascii) {
+        if (end - start < ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (Character.toUpperCase((char) buf.get(start + i)) != Character.toUpperCase(ascii.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(ByteBuffer buf, int start, int end, byte b) {
+        for (int i = start; i < end; i++) {
+            if (buf.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static String decode(ByteBuffer buf, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buf.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
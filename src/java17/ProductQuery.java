@@ -0,0 +1,579 @@
+package java17;
+
+/**
+ * Small query language for products, e.g.
+ *   category = LAPTOP AND price > 1000 ORDER BY price DESC LIMIT 20
+ *   name CONTAINS 'mouse' OR (category = MONITOR AND NOT price >= 500)
+ *
+ * A query is parsed into a sealed expression tree, planned against the
+ * StoreService indexes, and compiled into a flat QueryProgram. Compiled
+ * queries are cached by their text, so repeated queries skip parsing and
+ * compilation.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// =======================================================
+//  Expression tree (sealed interface + records)
+// =======================================================
+sealed interface QueryExpr permits QueryExpr.Compare, QueryExpr.And, QueryExpr.Or, QueryExpr.Not {
+
+    enum Field { NAME, PRICE, CATEGORY }
+
+    enum Op { EQ, NE, LT, LE, GT, GE, CONTAINS }
+
+    record Compare(Field field, Op op, Object value) implements QueryExpr {
+    }
+
+    record And(List<QueryExpr> terms) implements QueryExpr {
+    }
+
+    record Or(List<QueryExpr> terms) implements QueryExpr {
+    }
+
+    record Not(QueryExpr term) implements QueryExpr {
+    }
+}
+
+// =======================================================
+//  ProductQuery — a parsed query: filter, ordering and limit
+// =======================================================
+record ProductQuery(QueryExpr where, QueryExpr.Field orderBy, boolean descending, int limit) {
+
+    static ProductQuery parse(String text) {
+        return new QueryParser(text).parse();
+    }
+}
+
+// =======================================================
+//  QueryParser — recursive descent over a tiny token stream
+//  query  := [expr] [ORDER BY field [ASC|DESC]] [LIMIT n]
+//  expr   := term (OR term)*
+//  term   := factor (AND factor)*
+//  factor := NOT factor | '(' expr ')' | field op value
+// =======================================================
+final class QueryParser {
+    private final String text;
+    private final List<String> tokens = new ArrayList<>();
+    private final List<Integer> positions = new ArrayList<>();
+    private int pos;
+
+    QueryParser(String text) {
+        this.text = text;
+        tokenize();
+    }
+
+    ProductQuery parse() {
+        QueryExpr where = null;
+        if (!atEnd() && !peekKeyword("ORDER") && !peekKeyword("LIMIT")) {
+            where = expr();
+        }
+        QueryExpr.Field orderBy = null;
+        boolean descending = false;
+        if (acceptKeyword("ORDER")) {
+            expectKeyword("BY");
+            orderBy = field(next());
+            if (acceptKeyword("DESC")) {
+                descending = true;
+            } else {
+                acceptKeyword("ASC");
+            }
+        }
+        int limit = Integer.MAX_VALUE;
+        if (acceptKeyword("LIMIT")) {
+            String n = next();
+            try {
+                limit = Integer.parseInt(n);
+            } catch (NumberFormatException e) {
+                throw errorAt(pos - 1, "LIMIT expects a number, got '" + n + "'");
+            }
+            if (limit < 0) {
+                throw errorAt(pos - 1, "LIMIT must not be negative");
+            }
+        }
+        if (!atEnd()) {
+            throw error("Unexpected '" + tokens.get(pos) + "'");
+        }
+        return new ProductQuery(where, orderBy, descending, limit);
+    }
+
+    private QueryExpr expr() {
+        List<QueryExpr> terms = new ArrayList<>(List.of(term()));
+        while (acceptKeyword("OR")) {
+            terms.add(term());
+        }
+        return terms.size() == 1 ? terms.get(0) : new QueryExpr.Or(List.copyOf(terms));
+    }
+
+    private QueryExpr term() {
+        List<QueryExpr> factors = new ArrayList<>(List.of(factor()));
+        while (acceptKeyword("AND")) {
+            factors.add(factor());
+        }
+        return factors.size() == 1 ? factors.get(0) : new QueryExpr.And(List.copyOf(factors));
+    }
+
+    private QueryExpr factor() {
+        if (acceptKeyword("NOT")) {
+            return new QueryExpr.Not(factor());
+        }
+        if (accept("(")) {
+            QueryExpr inner = expr();
+            if (!accept(")")) {
+                throw error("Expected ')'");
+            }
+            return inner;
+        }
+        QueryExpr.Field field = field(next());
+        int opAt = pos;
+        QueryExpr.Op op = op(next());
+        String raw = next();
+        int valueAt = pos - 1;
+        return switch (field) {
+            case PRICE -> {
+                if (op == QueryExpr.Op.CONTAINS) {
+                    throw errorAt(opAt, "CONTAINS only applies to name");
+                }
+                try {
+                    yield new QueryExpr.Compare(field, op, Double.parseDouble(raw));
+                } catch (NumberFormatException e) {
+                    throw errorAt(valueAt, "price expects a number, got '" + raw + "'");
+                }
+            }
+            case CATEGORY -> {
+                if (op != QueryExpr.Op.EQ && op != QueryExpr.Op.NE) {
+                    throw errorAt(opAt, "category only supports = and !=");
+                }
+                try {
+                    yield new QueryExpr.Compare(field, op, Category.valueOf(unquote(raw).toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw errorAt(valueAt, "Unknown category '" + raw + "'");
+                }
+            }
+            case NAME -> {
+                if (op != QueryExpr.Op.EQ && op != QueryExpr.Op.NE && op != QueryExpr.Op.CONTAINS) {
+                    throw errorAt(opAt, "name only supports =, != and CONTAINS");
+                }
+                yield new QueryExpr.Compare(field, op, unquote(raw).toLowerCase(Locale.ROOT));
+            }
+        };
+    }
+
+    // Called right after next(), so the token is at pos - 1
+    private QueryExpr.Field field(String token) {
+        try {
+            return QueryExpr.Field.valueOf(token.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw errorAt(pos - 1, "Unknown field '" + token + "'");
+        }
+    }
+
+    private QueryExpr.Op op(String token) {
+        return switch (token.toUpperCase(Locale.ROOT)) {
+            case "=" -> QueryExpr.Op.EQ;
+            case "!=", "<>" -> QueryExpr.Op.NE;
+            case "<" -> QueryExpr.Op.LT;
+            case "<=" -> QueryExpr.Op.LE;
+            case ">" -> QueryExpr.Op.GT;
+            case ">=" -> QueryExpr.Op.GE;
+            case "CONTAINS" -> QueryExpr.Op.CONTAINS;
+            default -> throw errorAt(pos - 1, "Unknown operator '" + token + "'");
+        };
+    }
+
+    private void tokenize() {
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (c == '\'') {
+                int end = text.indexOf('\'', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated string at position " + i + " in: " + text);
+                }
+                i = end + 1;
+            } else if (c == '(' || c == ')') {
+                i++;
+            } else if ("=!<>".indexOf(c) >= 0) {
+                i++;
+                if (i < text.length() && (text.charAt(i) == '=' || (c == '<' && text.charAt(i) == '>'))) {
+                    i++;
+                }
+            } else {
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                        && "()'=!<>".indexOf(text.charAt(i)) < 0) {
+                    i++;
+                }
+            }
+            tokens.add(text.substring(start, i));
+            positions.add(start);
+        }
+    }
+
+    private boolean atEnd() {
+        return pos >= tokens.size();
+    }
+
+    private String next() {
+        if (atEnd()) {
+            throw error("Unexpected end of query");
+        }
+        return tokens.get(pos++);
+    }
+
+    private boolean accept(String token) {
+        if (!atEnd() && tokens.get(pos).equals(token)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean peekKeyword(String keyword) {
+        return !atEnd() && tokens.get(pos).equalsIgnoreCase(keyword);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (peekKeyword(keyword)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) {
+            throw error("Expected " + keyword);
+        }
+    }
+
+    private static String unquote(String token) {
+        return token.length() >= 2 && token.startsWith("'") && token.endsWith("'")
+                ? token.substring(1, token.length() - 1)
+                : token;
+    }
+
+    // Error at the next, not yet consumed token (or the end of the query)
+    private IllegalArgumentException error(String message) {
+        return errorAt(pos, message);
+    }
+
+    private IllegalArgumentException errorAt(int tokenIndex, String message) {
+        int at = tokenIndex < positions.size() ? positions.get(tokenIndex) : text.length();
+        return new IllegalArgumentException(message + " at position " + at + " in: " + text);
+    }
+}
+
+// =======================================================
+//  QueryEngine — plans, compiles and caches product queries
+// Planning picks the cheapest source the StoreService indexes offer:
+//   - a top-level "category = X" reads only that category bucket
+//   - ORDER BY price walks a view of the price index (already sorted)
+//     within the price bounds found in the top-level AND terms, and
+//     stops as soon as LIMIT rows matched
+//   - anything else scans the catalog
+// The full compiled filter is then applied to that source.
+// =======================================================
+final class QueryEngine {
+    private static final int CACHE_SIZE = 256;
+
+    private final StoreService store;
+    private final Map<String, CompiledQuery> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledQuery> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    QueryEngine(StoreService store) {
+        this.store = store;
+    }
+
+    List<Product> execute(String query) {
+        return cache.computeIfAbsent(query, q -> compile(ProductQuery.parse(q))).run(store);
+    }
+
+    private record CompiledQuery(QueryProgram filter, Category categorySource,
+                                 boolean priceSource, double minPrice, double maxPrice,
+                                 Comparator<Product> order, boolean priceDescending, int limit) {
+
+        List<Product> run(StoreService store) {
+            Iterator<Product> source;
+            boolean sorted = false;
+            if (categorySource != null) {
+                source = store.getProductsByCategory(categorySource).iterator();
+            } else if (priceSource) {
+                // A live view of the index: nothing is copied, rows are read until LIMIT
+                List<Product> range = store.productsInPriceRange(minPrice, maxPrice);
+                source = priceDescending ? range.iterator() : ascending(range);
+                sorted = true;
+            } else {
+                source = store.products().iterator();
+            }
+            List<Product> result = new ArrayList<>();
+            boolean canStopEarly = sorted || order == null;
+            while (source.hasNext() && !(canStopEarly && result.size() >= limit)) {
+                Product p = source.next();
+                if (filter.test(p)) {
+                    result.add(p);
+                }
+            }
+            if (!sorted && order != null) {
+                result.sort(order);
+            }
+            return List.copyOf(result.size() > limit ? result.subList(0, limit) : result);
+        }
+
+        // Reads a highest-first range lowest-first. Runs of equal prices are
+        // found from the end but read forwards, so ties keep insertion order
+        // like the stable sort of the other plans.
+        private static Iterator<Product> ascending(List<Product> highestFirst) {
+            return new Iterator<>() {
+                private int runStart = highestFirst.size();
+                private int runEnd = runStart;
+                private int next = runStart;
+
+                @Override
+                public boolean hasNext() {
+                    return next < runEnd || runStart > 0;
+                }
+
+                @Override
+                public Product next() {
+                    if (next == runEnd) {
+                        if (runStart == 0) {
+                            throw new NoSuchElementException();
+                        }
+                        runEnd = runStart;
+                        double price = highestFirst.get(runEnd - 1).price();
+                        runStart = runEnd - 1;
+                        while (runStart > 0 && Double.compare(highestFirst.get(runStart - 1).price(), price) == 0) {
+                            runStart--;
+                        }
+                        next = runStart;
+                    }
+                    return highestFirst.get(next++);
+                }
+            };
+        }
+    }
+
+    private static CompiledQuery compile(ProductQuery query) {
+        QueryProgram filter = QueryProgram.compile(query.where());
+        Comparator<Product> order = null;
+        if (query.orderBy() != null) {
+            order = switch (query.orderBy()) {
+                case PRICE -> Comparator.comparingDouble(Product::price);
+                case NAME -> Comparator.comparing(Product::name, String.CASE_INSENSITIVE_ORDER);
+                case CATEGORY -> Comparator.comparing(Product::category);
+            };
+            if (query.descending()) {
+                order = order.reversed();
+            }
+        }
+
+        List<QueryExpr> conjuncts = query.where() instanceof QueryExpr.And and ? and.terms()
+                : query.where() == null ? List.of() : List.of(query.where());
+        Category category = null;
+        double min = Double.NEGATIVE_INFINITY;
+        double max = Double.POSITIVE_INFINITY;
+        for (QueryExpr term : conjuncts) {
+            if (term instanceof QueryExpr.Compare c) {
+                if (c.field() == QueryExpr.Field.CATEGORY && c.op() == QueryExpr.Op.EQ) {
+                    category = (Category) c.value();
+                } else if (c.field() == QueryExpr.Field.PRICE) {
+                    double v = (Double) c.value();
+                    switch (c.op()) {
+                        case GT, GE -> min = Math.max(min, v);
+                        case LT, LE -> max = Math.min(max, v);
+                        case EQ -> {
+                            min = Math.max(min, v);
+                            max = Math.min(max, v);
+                        }
+                        default -> {
+                        }
+                    }
+                }
+            }
+        }
+        boolean priceSource = category == null && query.orderBy() == QueryExpr.Field.PRICE;
+        return new CompiledQuery(filter, category, priceSource, min, max, order,
+                query.descending(), query.limit());
+    }
+}
+
+// =======================================================
+//  QueryProgram — a filter flattened into one instruction array
+// Nested predicate lambdas made the a.test(p) / b.test(p) call sites
+// inside AND/OR megamorphic once several query shapes had run. Here
+// every query is the same final class: AND/OR become conditional jumps
+// over the flattened terms (keeping short-circuit evaluation), NOT
+// flips the result, and comparisons read their constant from a
+// parallel array. The scan loop's filter.test(p) call stays monomorphic
+// and the loop body is a switch with no virtual calls.
+// =======================================================
+final class QueryProgram {
+    private static final byte PRICE_EQ = 0, PRICE_NE = 1, PRICE_LT = 2, PRICE_LE = 3, PRICE_GT = 4, PRICE_GE = 5;
+    private static final byte CATEGORY_EQ = 6, CATEGORY_NE = 7;
+    private static final byte NAME_EQ = 8, NAME_NE = 9, NAME_CONTAINS = 10;
+    private static final byte NOT = 11, JUMP_IF_FALSE = 12, JUMP_IF_TRUE = 13;
+
+    private final byte[] ops;
+    private final double[] numbers;
+    private final Object[] values;
+    private final int[] jumps;
+
+    private QueryProgram(byte[] ops, double[] numbers, Object[] values, int[] jumps) {
+        this.ops = ops;
+        this.numbers = numbers;
+        this.values = values;
+        this.jumps = jumps;
+    }
+
+    /** Compiles a filter; null (no WHERE part) matches every product. */
+    static QueryProgram compile(QueryExpr where) {
+        Builder builder = new Builder();
+        if (where != null) {
+            builder.emit(where);
+        }
+        return builder.build();
+    }
+
+    boolean test(Product p) {
+        boolean result = true;
+        for (int pc = 0; pc < ops.length; pc++) {
+            switch (ops[pc]) {
+                case PRICE_EQ -> result = p.price() == numbers[pc];
+                case PRICE_NE -> result = p.price() != numbers[pc];
+                case PRICE_LT -> result = p.price() < numbers[pc];
+                case PRICE_LE -> result = p.price() <= numbers[pc];
+                case PRICE_GT -> result = p.price() > numbers[pc];
+                case PRICE_GE -> result = p.price() >= numbers[pc];
+                case CATEGORY_EQ -> result = p.category() == values[pc];
+                case CATEGORY_NE -> result = p.category() != values[pc];
+                case NAME_EQ -> result = p.name().equalsIgnoreCase((String) values[pc]);
+                case NAME_NE -> result = !p.name().equalsIgnoreCase((String) values[pc]);
+                case NAME_CONTAINS -> result = containsIgnoreCase(p.name(), (String) values[pc]);
+                case NOT -> result = !result;
+                case JUMP_IF_FALSE -> {
+                    if (!result) {
+                        pc = jumps[pc] - 1;
+                    }
+                }
+                case JUMP_IF_TRUE -> {
+                    if (result) {
+                        pc = jumps[pc] - 1;
+                    }
+                }
+                default -> throw new IllegalStateException("Bad opcode " + ops[pc]);
+            }
+        }
+        return result;
+    }
+
+    // Case-insensitive substring match without lower-casing (and copying) the name
+    private static boolean containsIgnoreCase(String text, String needle) {
+        for (int i = 0, last = text.length() - needle.length(); i <= last; i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Builder {
+        private final List<Byte> ops = new ArrayList<>();
+        private final List<Double> numbers = new ArrayList<>();
+        private final List<Object> values = new ArrayList<>();
+        private final List<Integer> jumps = new ArrayList<>();
+
+        void emit(QueryExpr expr) {
+            if (expr instanceof QueryExpr.And and) {
+                emitChain(and.terms(), JUMP_IF_FALSE);
+            } else if (expr instanceof QueryExpr.Or or) {
+                emitChain(or.terms(), JUMP_IF_TRUE);
+            } else if (expr instanceof QueryExpr.Not not) {
+                emit(not.term());
+                add(NOT, 0, null);
+            } else {
+                emitCompare((QueryExpr.Compare) expr);
+            }
+        }
+
+        // t1 JUMP t2 JUMP ... tn, where every jump skips to the end of the chain
+        private void emitChain(List<QueryExpr> terms, byte jump) {
+            List<Integer> pending = new ArrayList<>();
+            for (int i = 0; i < terms.size(); i++) {
+                if (i > 0) {
+                    pending.add(ops.size());
+                    add(jump, 0, null);
+                }
+                emit(terms.get(i));
+            }
+            for (int at : pending) {
+                jumps.set(at, ops.size());
+            }
+        }
+
+        private void emitCompare(QueryExpr.Compare c) {
+            switch (c.field()) {
+                case PRICE -> {
+                    double v = (Double) c.value();
+                    byte op = switch (c.op()) {
+                        case EQ -> PRICE_EQ;
+                        case NE -> PRICE_NE;
+                        case LT -> PRICE_LT;
+                        case LE -> PRICE_LE;
+                        case GT -> PRICE_GT;
+                        case GE -> PRICE_GE;
+                        case CONTAINS -> throw new IllegalStateException("CONTAINS on price");
+                    };
+                    add(op, v, null);
+                }
+                case CATEGORY -> add(c.op() == QueryExpr.Op.EQ ? CATEGORY_EQ : CATEGORY_NE, 0, c.value());
+                case NAME -> {
+                    byte op = switch (c.op()) {
+                        case EQ -> NAME_EQ;
+                        case NE -> NAME_NE;
+                        case CONTAINS -> NAME_CONTAINS;
+                        default -> throw new IllegalStateException(c.op() + " on name");
+                    };
+                    add(op, 0, c.value());
+                }
+            }
+        }
+
+        private void add(byte op, double number, Object value) {
+            ops.add(op);
+            numbers.add(number);
+            values.add(value);
+            jumps.add(0);
+        }
+
+        QueryProgram build() {
+            int n = ops.size();
+            byte[] opArray = new byte[n];
+            double[] numberArray = new double[n];
+            int[] jumpArray = new int[n];
+            for (int i = 0; i < n; i++) {
+                opArray[i] = ops.get(i);
+                numberArray[i] = numbers.get(i);
+                jumpArray[i] = jumps.get(i);
+            }
+            return new QueryProgram(opArray, numberArray, values.toArray(), jumpArray);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package java17;
+
+/**
+ * Cache for read-query results, invalidated by a catalog version counter.
+ */
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// =======================================================
+// QueryResultCache — results keyed by query + parameter
+// Every entry remembers the catalog version it was computed at. Writes
+// just bump the version, which makes all older entries misses; there is
+// no need to walk the cache on every addProduct(). Backed by a
+// ConcurrentHashMap, so concurrent readers never block each other.
+// Cached values must be immutable (e.g. List.copyOf, Optional).
+// Only cache queries that do real work: a hit allocates a key, so O(1)
+// lookups like findProduct() are faster without the cache.
+// A result never replaces an entry computed at a newer version, and only
+// one thread evicts at a time, so the size may briefly exceed maxEntries
+// while that thread works.
+// =======================================================
+class QueryResultCache {
+    private record Key(String query, Object parameter) {
+    }
+
+    private record Entry(long version, Object value) {
+    }
+
+    record Stats(long hits, long misses, long evictions, int size) {
+        double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final int maxEntries;
+    private final int evictionBatch;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    QueryResultCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.evictionBatch = Math.max(1, maxEntries / 8);
+    }
+
+    /** Called on every catalog change; all cached results become stale. */
+    void invalidateAll() {
+        version.incrementAndGet();
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(String query, Object parameter, Supplier<T> compute) {
+        Key key = new Key(query, parameter);
+        // Read the version before computing: if the catalog changes meanwhile,
+        // the entry is stored under the old version and recomputed next time.
+        long current = version.get();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == current) {
+            hits.increment();
+            return (T) entry.value();
+        }
+        misses.increment();
+        T value = compute.get();
+        // A slow reader must not overwrite what a faster one stored for a newer version
+        entries.merge(key, new Entry(current, value),
+                (stored, computed) -> stored.version() > computed.version() ? stored : computed);
+        if (entries.size() > maxEntries && evicting.compareAndSet(false, true)) {
+            try {
+                evict(current);
+            } finally {
+                evicting.set(false);
+            }
+        }
+        return value;
+    }
+
+    Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    // Runs once the cache overflows and removes a batch of about maxEntries/8
+    // entries, so the cost is amortized O(1) per miss instead of a full walk.
+    // Stale entries are preferred within a bounded scan window; arbitrary
+    // entries fill the rest of the batch.
+    private void evict(long current) {
+        int target = maxEntries - evictionBatch;
+        int scanBudget = 2 * evictionBatch;
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > target && scanBudget-- > 0 && it.hasNext()) {
+            if (it.next().version() < current) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+        it = entries.values().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -5,13 +5,20 @@ package java17;
  * Demonstrates Java 17 features in a mini product management app.
  */
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 public class TechStoreAppJava17 {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         System.out.println("===== TechStore v7.0 (Java 17) =====\n");
 
         StoreService store = new StoreService();
@@ -21,10 +28,57 @@ public class TechStoreAppJava17 {
         store.addProduct(new Product("Logitech Mouse", 45.0, Category.ACCESSORY));
         store.addProduct(new Product("Samsung Monitor", 320.0, Category.MONITOR));
         store.addProduct(new Product("Mechanical Keyboard", 120.0, Category.ACCESSORY));
+        store.addProduct(new Product("Razer Mouse", 45.0, Category.ACCESSORY));
 
         // Display products
         store.displayProducts();
 
+        // Price queries served from the sorted price index
+        System.out.println("\nProducts above $100: " + store.filterExpensiveProducts(100));
+        System.out.println("Products between $40 and $150: " + store.filterByPriceRange(40, 150));
+        System.out.println("Top 2 most expensive: " + store.topExpensiveProducts(2));
+
+        // Category buckets (EnumMap): only the ACCESSORY bucket is scanned
+        System.out.println("\nAccessories under $50: " + store.findByCategoryUnder(Category.ACCESSORY, 50));
+        System.out.println("Accessory stats: " + store.getCategoryStats(Category.ACCESSORY));
+
+        // Query language: parsed, planned against the indexes and compiled once
+        String query = "category = ACCESSORY OR price > 300 ORDER BY price DESC LIMIT 3";
+        System.out.println("\nQuery: " + query);
+        store.query(query).forEach(System.out::println);
+        store.query(query); // repeat query: served from the result cache
+        System.out.println("Result cache: " + store.cacheStats());
+
+        // Equal prices (the two $45 mice) keep insertion order whichever plan
+        // serves the query: the price index or the category bucket
+        boolean sameTies = true;
+        for (String direction : List.of("ASC", "DESC")) {
+            List<Product> fromIndex = store.query("price >= 0 ORDER BY price " + direction).stream()
+                    .filter(p -> p.category() == Category.ACCESSORY).toList();
+            sameTies &= fromIndex.equals(store.query("category = ACCESSORY ORDER BY price " + direction));
+        }
+        System.out.println("Ties ordered the same across plans: " + sameTies);
+
+        // Binary snapshot: save the catalog, then memory-map it back for fast startup
+        Path snapshotFile = Files.createTempFile("techstore-catalog-", ".bin");
+        CatalogSnapshot.write(snapshotFile, store.products());
+        CatalogSnapshot snapshot = CatalogSnapshot.open(snapshotFile);
+        System.out.println("\nSnapshot rows: " + snapshot.size()
+                + ", lookup 'samsung monitor': " + snapshot.find("samsung monitor").orElse(null));
+        Files.deleteIfExists(snapshotFile);
+
+        // Bulk CSV import: parsed in parallel chunks, published in one step
+        Path csvFile = Files.createTempFile("techstore-import-", ".csv");
+        Files.writeString(csvFile, """
+                name,price,category
+                Dell UltraSharp,540.0,MONITOR
+                "Keychron K2, Wireless",89.99,ACCESSORY
+                Broken line without fields
+                Samsung T7,129.5,STORAGE
+                """);
+        System.out.println("\nCSV import: " + CsvProductImporter.csv().importInto(store, csvFile));
+        Files.deleteIfExists(csvFile);
+
         // Pattern Matching: search by object type
         Object obj = new Product("SSD", 150.0, Category.STORAGE);
         if (obj instanceof Product p && p.price() > 100) {
@@ -118,22 +172,190 @@ final class Guest extends User {
 // =======================================================
 class StoreService {
     private final List<Product> products = new ArrayList<>();
+    private final PriceIndex priceIndex = new PriceIndex();
+    private final Map<Category, CategoryBucket> buckets = new EnumMap<>(Category.class);
+    private final QueryEngine queryEngine = new QueryEngine(this);
+    private final QueryResultCache cache = new QueryResultCache(1_000);
+
+    StoreService() {
+        for (Category c : Category.values()) {
+            buckets.put(c, new CategoryBucket());
+        }
+    }
 
     public void addProduct(Product p) {
         products.add(p);
+        priceIndex.add(p);
+        buckets.get(p.category()).add(p);
+        cache.invalidateAll();
         System.out.println("Added: " + p.name());
     }
 
+    // Bulk load (e.g. from CsvProductImporter): one index update, no per-product output
+    public void addAll(List<Product> batch) {
+        products.addAll(batch);
+        priceIndex.addAll(batch);
+        batch.forEach(p -> buckets.get(p.category()).add(p));
+        cache.invalidateAll();
+    }
+
     public void displayProducts() {
         System.out.println("\n Product List:");
         products.forEach(System.out::println);
     }
 
     public List<Product> filterExpensiveProducts(double minPrice) {
-        return products.stream()
-                .filter(p -> p.price() > minPrice)
-                .sorted(Comparator.comparing(Product::price).reversed())
-                .toList();
+        return cache.get("filterExpensiveProducts", minPrice, () -> priceIndex.above(minPrice));
+    }
+
+    public List<Product> filterByPriceRange(double minPrice, double maxPrice) {
+        return priceIndex.between(minPrice, maxPrice);
+    }
+
+    public List<Product> topExpensiveProducts(int n) {
+        return priceIndex.top(n);
+    }
+
+    public List<Product> getProductsByCategory(Category category) {
+        return buckets.get(category).products();
+    }
+
+    public List<Product> findByCategoryUnder(Category category, double maxPrice) {
+        return buckets.get(category).under(maxPrice);
+    }
+
+    // An immutable copy of the running stats; later adds do not change it
+    public CategoryStats getCategoryStats(Category category) {
+        return buckets.get(category).stats();
+    }
+
+    // e.g. "category = LAPTOP AND price > 1000 ORDER BY price DESC LIMIT 20"
+    public List<Product> query(String query) {
+        return cache.get("query", query, () -> queryEngine.execute(query));
+    }
+
+    public QueryResultCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    List<Product> products() {
+        return Collections.unmodifiableList(products);
+    }
+
+    // Read-only live view of the price index, highest first; nothing is copied
+    List<Product> productsInPriceRange(double minPrice, double maxPrice) {
+        return priceIndex.betweenView(minPrice, maxPrice);
+    }
+}
+
+// =======================================================
+//  PriceIndex — products kept sorted by price, highest first
+// Inserts use binary search, so range and top-N queries are
+// plain sub-lists and never need to re-sort the catalog.
+// =======================================================
+class PriceIndex {
+    private final List<Product> byPriceDesc = new ArrayList<>();
+
+    void add(Product p) {
+        // Insert after every product with a price >= p.price(),
+        // so equal prices keep insertion order (like a stable sort).
+        byPriceDesc.add(countAtLeast(p.price(), true), p);
+    }
+
+    void addAll(List<Product> batch) {
+        // Append then stable-sort: equal prices still keep insertion order
+        byPriceDesc.addAll(batch);
+        byPriceDesc.sort(Comparator.comparingDouble(Product::price).reversed());
+    }
+
+    // price > minPrice, highest first
+    List<Product> above(double minPrice) {
+        return List.copyOf(byPriceDesc.subList(0, countAtLeast(minPrice, false)));
+    }
+
+    // minPrice <= price <= maxPrice, highest first
+    List<Product> between(double minPrice, double maxPrice) {
+        return List.copyOf(betweenView(minPrice, maxPrice));
+    }
+
+    // Same range as a read-only view, valid until the next write
+    List<Product> betweenView(double minPrice, double maxPrice) {
+        int from = countAtLeast(maxPrice, false);
+        int to = countAtLeast(minPrice, true);
+        return from < to ? Collections.unmodifiableList(byPriceDesc.subList(from, to)) : List.of();
+    }
+
+    List<Product> top(int n) {
+        return List.copyOf(byPriceDesc.subList(0, Math.max(0, Math.min(n, byPriceDesc.size()))));
+    }
+
+    // Number of leading products priced >= price (inclusive) or > price (exclusive).
+    private int countAtLeast(double price, boolean inclusive) {
+        int lo = 0, hi = byPriceDesc.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double midPrice = byPriceDesc.get(mid).price();
+            if (inclusive ? midPrice >= price : midPrice > price) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
     }
 }
 
+// =======================================================
+//  CategoryBucket — products of one category plus running price stats
+// Prices are mirrored in a primitive array so price filters
+// scan contiguous doubles and only touch matching products.
+// =======================================================
+class CategoryBucket {
+    private final List<Product> products = new ArrayList<>();
+    private double[] prices = new double[8];
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    void add(Product p) {
+        if (products.size() == prices.length) {
+            prices = Arrays.copyOf(prices, prices.length * 2);
+        }
+        prices[products.size()] = p.price();
+        products.add(p);
+        sum += p.price();
+        min = Math.min(min, p.price());
+        max = Math.max(max, p.price());
+    }
+
+    List<Product> under(double maxPrice) {
+        List<Product> result = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            if (prices[i] < maxPrice) {
+                result.add(products.get(i));
+            }
+        }
+        return result;
+    }
+
+    List<Product> products() {
+        return Collections.unmodifiableList(products);
+    }
+
+    CategoryStats stats() {
+        int count = products.size();
+        return count == 0
+                ? new CategoryStats(0, 0.0, 0.0, 0.0, 0.0)
+                : new CategoryStats(count, sum, min, max, sum / count);
+    }
+}
+
+// =======================================================
+//  CategoryStats — point-in-time price stats of one category
+// =======================================================
+record CategoryStats(int count, double sum, double min, double max, double average) {
+    @Override
+    public String toString() {
+        return String.format("count=%d, min=$%.2f, max=$%.2f, avg=$%.2f", count, min, max, average);
+    }
+}
@@ -11,7 +11,11 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 public class TechStoreAppJava18 {
 
@@ -37,6 +41,10 @@ public class TechStoreAppJava18 {
         System.out.println("\n Products with price >= 100:");
         filtered.forEach(p -> System.out.println(p.name() + " - $" + p.price()));
 
+        // Category buckets (EnumMap): only the ACCESSORY bucket is scanned
+        System.out.println("\n Accessories under $50: " + store.findByCategoryUnder(Category.ACCESSORY, 50));
+        System.out.println(" Accessory stats: " + store.getCategoryStats(Category.ACCESSORY));
+
         // Start simple web server (if permitted)
         try {
             var server = com.sun.net.httpserver.HttpServer.create(new InetSocketAddress(8081), 0);
@@ -84,9 +92,17 @@ enum Category {
 // =======================================================
 class StoreService {
     private final List<Product> products = new ArrayList<>();
+    private final Map<Category, CategoryBucket> buckets = new EnumMap<>(Category.class);
+
+    StoreService() {
+        for (Category c : Category.values()) {
+            buckets.put(c, new CategoryBucket());
+        }
+    }
 
     public void addProduct(Product p) {
         products.add(p);
+        buckets.get(p.category()).add(p);
         System.out.println("Added: " + p.name());
     }
 
@@ -98,5 +114,72 @@ class StoreService {
     public List<Product> getProducts() {
         return products;
     }
+
+    public List<Product> getProductsByCategory(Category category) {
+        return buckets.get(category).products();
+    }
+
+    public List<Product> findByCategoryUnder(Category category, double maxPrice) {
+        return buckets.get(category).under(maxPrice);
+    }
+
+    // An immutable copy of the running stats; later adds do not change it
+    public CategoryStats getCategoryStats(Category category) {
+        return buckets.get(category).stats();
+    }
 }
 
+// =======================================================
+//  CategoryBucket — products of one category plus running price stats
+// Prices are mirrored in a primitive array so price filters
+// scan contiguous doubles and only touch matching products.
+// =======================================================
+class CategoryBucket {
+    private final List<Product> products = new ArrayList<>();
+    private double[] prices = new double[8];
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    void add(Product p) {
+        if (products.size() == prices.length) {
+            prices = Arrays.copyOf(prices, prices.length * 2);
+        }
+        prices[products.size()] = p.price();
+        products.add(p);
+        sum += p.price();
+        min = Math.min(min, p.price());
+        max = Math.max(max, p.price());
+    }
+
+    List<Product> under(double maxPrice) {
+        List<Product> result = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            if (prices[i] < maxPrice) {
+                result.add(products.get(i));
+            }
+        }
+        return result;
+    }
+
+    List<Product> products() {
+        return Collections.unmodifiableList(products);
+    }
+
+    CategoryStats stats() {
+        int count = products.size();
+        return count == 0
+                ? new CategoryStats(0, 0.0, 0.0, 0.0, 0.0)
+                : new CategoryStats(count, sum, min, max, sum / count);
+    }
+}
+
+// =======================================================
+//  CategoryStats — point-in-time price stats of one category
+// =======================================================
+record CategoryStats(int count, double sum, double min, double max, double average) {
+    @Override
+    public String toString() {
+        return String.format("count=%d, min=$%.2f, max=$%.2f, avg=$%.2f", count, min, max, average);
+    }
+}
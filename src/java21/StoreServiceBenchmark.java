@@ -0,0 +1,75 @@
+package java21;
+
+/**
+ * Mixed read/write throughput of StoreService at 1 to 64 threads.
+ * Each thread does one addProduct for every nine getProducts() reads, and
+ * every read touches the newest product in its snapshot. Platform threads
+ * stand in for carrier threads: virtual-thread parallelism is fixed per JVM
+ * (-Djdk.virtualThreadScheduler.parallelism=N), so it cannot be swept in
+ * one run.
+ *
+ *   java java21.StoreServiceBenchmark [opsPerThread]
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class StoreServiceBenchmark {
+    private static final int WRITE_EVERY = 10;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws Exception {
+        int opsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        System.out.println("=====  StoreService mixed read/write benchmark =====");
+        System.out.printf("%d ops per thread, 1 write per %d ops%n%n", opsPerThread, WRITE_EVERY);
+
+        run(4, opsPerThread); // warm-up
+        System.out.printf("%8s %12s %14s %12s%n", "threads", "time (ms)", "ops/s", "products");
+        for (int threads : THREAD_COUNTS) {
+            Result r = run(threads, opsPerThread);
+            System.out.printf("%8d %12d %,14.0f %,12d%n",
+                    threads, r.nanos() / 1_000_000, r.ops() * 1e9 / r.nanos(), r.products());
+        }
+    }
+
+    private record Result(long nanos, long ops, int products) {
+    }
+
+    private static Result run(int threads, int opsPerThread) throws Exception {
+        StoreService store = new StoreService();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    long checksum = 0;
+                    for (int i = 0; i < opsPerThread; i++) {
+                        if (i % WRITE_EVERY == 0) {
+                            store.add(new Product("Item " + id + "-" + i, i, Category.ACCESSORY));
+                        } else {
+                            List<Product> products = store.getProducts();
+                            checksum += products.isEmpty() ? 0 : (long) products.get(products.size() - 1).price();
+                        }
+                    }
+                    return checksum;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<Long> f : futures) {
+                f.get();
+            }
+            long nanos = System.nanoTime() - begin;
+            return new Result(nanos, (long) threads * opsPerThread, store.getProducts().size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -5,13 +5,17 @@ package java21;
  * Demonstrates Java 21 features in a mini product management app.
  */
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static java.lang.StringTemplate.STR;
 
@@ -51,6 +55,16 @@ public class TechStoreAppJava21 {
         });
         executor.shutdown();
 
+        // Concurrent writers: virtual threads adding products while others read
+        try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i <= 3; i++) {
+                int n = i;
+                writers.submit(() -> store.addProduct(new Product("USB-C Hub " + n, 30.0 + n, Category.ACCESSORY)));
+                writers.submit(() -> store.getProducts().size());
+            }
+        }
+        System.out.println("Products after concurrent adds: " + store.getProducts().size());
+
         // Scoped Values (Preview)
         var scopedStoreName = ScopedValue.newInstance("TechStore v11.0");
         try (var scope = ScopedValue.where(scopedStoreName, "Scoped Store Demo")) {
@@ -90,23 +104,158 @@ enum Category {
 }
 
 // =======================================================
-//  StoreService — product operations
+//  StoreService — thread-safe product operations
+// Products live in a ProductLog: writers append without taking a lock,
+// and readers get an immutable, insertion-ordered snapshot in O(1), so
+// getProducts() never blocks and never copies the catalog.
 // =======================================================
 class StoreService {
-    private final List<Product> products = new ArrayList<>();
+    private final ProductLog products = new ProductLog();
 
     public void addProduct(Product p) {
-        products.add(p);
+        add(p);
         System.out.println("Added: " + p.name());
     }
 
+    // Same as addProduct without the console output (bulk loads, benchmarks)
+    void add(Product p) {
+        products.append(p);
+    }
+
     public void displayProducts() {
         System.out.println("\n Product List:");
-        products.forEach(System.out::println);
+        getProducts().forEach(System.out::println);
     }
 
+    /** Returns an immutable, consistent snapshot of the catalog, in insertion order. */
     public List<Product> getProducts() {
-        return products;
+        return products.snapshot();
     }
 }
 
+// =======================================================
+//  ProductLog — lock-free, append-only product storage
+// A slot is reserved with one atomic increment. Storage is a directory
+// of chunks that double in size (16, 32, 64, ...), each installed with a
+// CAS, so stored products never move. `published` is the length of the
+// longest fully written prefix. That prefix never changes again, so a
+// snapshot is just a view over its first n slots.
+// A writer that fails between reserving and storing its slot (e.g. an
+// OutOfMemoryError allocating a chunk) leaves a hole that can never be
+// published. The slot is then recorded as failed: appends waiting behind
+// it throw instead of spinning, new appends are rejected, and the log
+// stays readable up to the hole.
+// =======================================================
+final class ProductLog {
+    private static final int FIRST_CHUNK_BITS = 4;
+    private static final int MAX_SIZE = Integer.MAX_VALUE - (1 << FIRST_CHUNK_BITS);
+
+    private final AtomicReferenceArray<AtomicReferenceArray<Product>> chunks = new AtomicReferenceArray<>(32);
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+    private final AtomicInteger failedSlot = new AtomicInteger(Integer.MAX_VALUE);
+    private volatile Throwable failure;
+
+    void append(Product p) {
+        Objects.requireNonNull(p, "product");
+        checkNotFailed();
+        int slot = reserved.getAndIncrement();
+        if (slot < 0 || slot >= MAX_SIZE) {
+            throw new IllegalStateException("ProductLog is full");
+        }
+        try {
+            chunk(slot, true).set(offset(slot), p);
+        } catch (Throwable t) {
+            failure = t;
+            failedSlot.accumulateAndGet(slot, Math::min);
+            throw t;
+        }
+        // Earlier slots may still be in flight on other threads. Their writers
+        // never block between reserving and storing, so this wait is short and
+        // makes the product visible to readers before append returns.
+        int spins = 0;
+        while (advance() <= slot) {
+            if (slot > failedSlot.get()) {
+                throw new IllegalStateException("An earlier append failed; product was not stored", failure);
+            }
+            if (++spins % 64 == 0) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    int size() {
+        return published.get();
+    }
+
+    private void checkNotFailed() {
+        if (failedSlot.get() != Integer.MAX_VALUE) {
+            throw new IllegalStateException("ProductLog is read-only after a failed append", failure);
+        }
+    }
+
+    List<Product> snapshot() {
+        return new Snapshot(published.get());
+    }
+
+    // Extends the published prefix over every slot that has been written
+    private int advance() {
+        while (true) {
+            int from = published.get();
+            int to = from;
+            int limit = reserved.get();
+            while (to < limit && isWritten(to)) {
+                to++;
+            }
+            if (to == from || published.compareAndSet(from, to)) {
+                return published.get();
+            }
+        }
+    }
+
+    private boolean isWritten(int slot) {
+        AtomicReferenceArray<Product> chunk = chunk(slot, false);
+        return chunk != null && chunk.get(offset(slot)) != null;
+    }
+
+    private AtomicReferenceArray<Product> chunk(int slot, boolean create) {
+        int bit = highBit(slot);
+        int index = bit - FIRST_CHUNK_BITS;
+        AtomicReferenceArray<Product> chunk = chunks.get(index);
+        if (chunk == null && create) {
+            chunks.compareAndSet(index, null, new AtomicReferenceArray<>(1 << bit));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    private static int highBit(int slot) {
+        return 31 - Integer.numberOfLeadingZeros(slot + (1 << FIRST_CHUNK_BITS));
+    }
+
+    private static int offset(int slot) {
+        return slot + (1 << FIRST_CHUNK_BITS) - (1 << highBit(slot));
+    }
+
+    private final class Snapshot extends AbstractList<Product> implements RandomAccess {
+        private final int size;
+
+        Snapshot(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Product get(int index) {
+            Objects.checkIndex(index, size);
+            // Plain read: the volatile read of `published` already ordered it
+            return chunks.get(highBit(index) - FIRST_CHUNK_BITS).getPlain(offset(index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package java22;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Gatherer;
+import java.util.stream.Gatherers;
+
+/**
+ * Reusable batching stages for Stream pipelines, built on Stream Gatherers
+ * (JEP 461, preview in Java 22). Bulk operations — persistence, stock checks,
+ * invoices — then run once per batch instead of once per product:
+ *
+ *   inventory.stream().gather(InventoryGatherers.batches(100)).forEach(repo::saveAll);
+ */
+final class InventoryGatherers {
+
+    private InventoryGatherers() {
+    }
+
+    /** Fixed-size batches; the last one may be smaller. */
+    static <T> Gatherer<T, ?, List<T>> batches(int size) {
+        return Gatherers.windowFixed(size);
+    }
+
+    /** Overlapping windows of the given size, advancing by one element. */
+    static <T> Gatherer<T, ?, List<T>> sliding(int size) {
+        return Gatherers.windowSliding(size);
+    }
+
+    /**
+     * Emits a batch when it reaches maxSize elements, or when an element arrives
+     * and the batch has been open for at least maxWait — whichever comes first.
+     * Whatever is left is emitted when the stream ends.
+     *
+     * The deadline is only checked when an element arrives: a stream is pulled
+     * by its terminal operation, and a gatherer may only push downstream from
+     * the thread that runs it, so there is no timer that could flush a batch.
+     * If the source stalls, the partial batch waits for the next element or
+     * the end of the stream. maxWait therefore bounds how long a batch keeps
+     * growing, not how late its first element is delivered. For a hard latency
+     * bound, drain a BlockingQueue with poll(timeout) instead of using a stream.
+     */
+    static <T> Gatherer<T, ?, List<T>> batchesWithin(int maxSize, Duration maxWait) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        long maxWaitNanos = maxWait.toNanos();
+
+        class Batch {
+            List<T> items = new ArrayList<>();
+            long openedAt;
+
+            List<T> take() {
+                List<T> full = Collections.unmodifiableList(items);
+                items = new ArrayList<>();
+                return full;
+            }
+        }
+
+        Gatherer.Integrator.Greedy<Batch, T, List<T>> integrator = (batch, item, downstream) -> {
+            if (batch.items.isEmpty()) {
+                batch.openedAt = System.nanoTime();
+            }
+            batch.items.add(item);
+            if (batch.items.size() >= maxSize || System.nanoTime() - batch.openedAt >= maxWaitNanos) {
+                return downstream.push(batch.take());
+            }
+            return true;
+        };
+        return Gatherer.ofSequential(
+                Batch::new,
+                integrator,
+                (batch, downstream) -> {
+                    if (!batch.items.isEmpty()) {
+                        downstream.push(batch.take());
+                    }
+                });
+    }
+}
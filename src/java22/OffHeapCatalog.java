@@ -0,0 +1,192 @@
+package java22;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import java22.TechStoreAppJava22.Product;
+
+/**
+ * Off-heap product catalog built on the Foreign Memory API.
+ * The API started incubating in Java 16 (JEP 389 / JEP 393) and became
+ * final as java.lang.foreign in Java 22, which is what this class uses.
+ */
+
+// =======================================================
+// OffHeapCatalog — fixed-layout product rows in a MemorySegment
+// Rows live outside the Java heap, so a large catalog adds no GC pressure.
+// Row layout (64 bytes):
+//   price (double) | category code (int) | name length (int) | name (48 bytes, UTF-8)
+// Category strings are stored once in a small on-heap dictionary.
+// Single-threaded: the rows come from a confined Arena, so only the
+// thread that created the catalog may read, write or close it; any
+// other thread gets a WrongThreadException. The category dictionary
+// and size are unsynchronized as well. Hand the catalog to another
+// thread only by creating it there.
+// =======================================================
+class OffHeapCatalog implements AutoCloseable {
+    static final int MAX_NAME_BYTES = 48;
+
+    private static final long PRICE_OFFSET = 0;
+    private static final long CATEGORY_OFFSET = 8;
+    private static final long NAME_LENGTH_OFFSET = 12;
+    private static final long NAME_OFFSET = 16;
+    private static final long ROW_SIZE = NAME_OFFSET + MAX_NAME_BYTES;
+
+    private final Arena arena;
+    private final MemorySegment rows;
+    private final int capacity;
+    private final List<String> categories = new ArrayList<>();
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+    private int size;
+
+    public OffHeapCatalog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.arena = Arena.ofConfined();
+        this.rows = arena.allocate(ROW_SIZE * capacity, Long.BYTES);
+    }
+
+    // ---------- StoreService-style API ----------
+
+    public void addProduct(Product product) {
+        put(size, product);
+        System.out.println(" Added product (off-heap): " + product.name());
+    }
+
+    public List<Product> getProducts() {
+        List<Product> products = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            products.add(get(row));
+        }
+        return products;
+    }
+
+    public void displayProducts() {
+        System.out.println("\n Off-heap Product List:");
+        forEach(view -> System.out.println(view));
+    }
+
+    // ---------- Row access ----------
+
+    public int size() {
+        return size;
+    }
+
+    /** Materializes a row as a heap Product record. */
+    public Product get(int row) {
+        checkRow(row, size);
+        return new Product(readName(row), readPrice(row), readCategory(row));
+    }
+
+    /** Writes a product into an existing row, or appends it (growing size()) when row == size(). */
+    public void put(int row, Product product) {
+        checkRow(row, size + 1);
+        if (row == size && size == capacity) {
+            throw new IllegalStateException("Off-heap catalog is full (" + capacity + " rows)");
+        }
+        byte[] name = product.name().getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException(
+                    "Product name exceeds " + MAX_NAME_BYTES + " UTF-8 bytes: " + product.name());
+        }
+        long base = row * ROW_SIZE;
+        rows.set(ValueLayout.JAVA_DOUBLE, base + PRICE_OFFSET, product.price());
+        rows.set(ValueLayout.JAVA_INT, base + CATEGORY_OFFSET, categoryCode(product.category()));
+        rows.set(ValueLayout.JAVA_INT, base + NAME_LENGTH_OFFSET, name.length);
+        MemorySegment.copy(name, 0, rows, ValueLayout.JAVA_BYTE, base + NAME_OFFSET, name.length);
+        if (row == size) {
+            size++;
+        }
+    }
+
+    /**
+     * Visits every row through one reusable flyweight view.
+     * The view is only valid inside the callback.
+     */
+    public void forEach(Consumer<ProductView> action) {
+        ProductView view = new ProductView();
+        for (int row = 0; row < size; row++) {
+            view.row = row;
+            action.accept(view);
+        }
+    }
+
+    /** Sums prices directly from off-heap memory, without creating any objects. */
+    public double totalPrice() {
+        double total = 0;
+        for (int row = 0; row < size; row++) {
+            total += readPrice(row);
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private double readPrice(int row) {
+        return rows.get(ValueLayout.JAVA_DOUBLE, row * ROW_SIZE + PRICE_OFFSET);
+    }
+
+    private String readCategory(int row) {
+        return categories.get(rows.get(ValueLayout.JAVA_INT, row * ROW_SIZE + CATEGORY_OFFSET));
+    }
+
+    private int categoryCode(String category) {
+        return categoryCodes.computeIfAbsent(category, c -> {
+            categories.add(c);
+            return categories.size() - 1;
+        });
+    }
+
+    private String readName(int row) {
+        long base = row * ROW_SIZE;
+        byte[] name = new byte[rows.get(ValueLayout.JAVA_INT, base + NAME_LENGTH_OFFSET)];
+        MemorySegment.copy(rows, ValueLayout.JAVA_BYTE, base + NAME_OFFSET, name, 0, name.length);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static void checkRow(int row, int limit) {
+        if (row < 0 || row >= limit) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range [0, " + limit + ")");
+        }
+    }
+
+    // =======================================================
+    // ProductView — flyweight over one off-heap row
+    // =======================================================
+    final class ProductView {
+        private int row;
+
+        public String name() {
+            return readName(row);
+        }
+
+        public double price() {
+            return readPrice(row);
+        }
+
+        public String category() {
+            return readCategory(row);
+        }
+
+        public Product toProduct() {
+            return get(row);
+        }
+
+        @Override
+        public String toString() {
+            return "Product[name=" + name() + ", price=" + price() + ", category=" + category() + "]";
+        }
+    }
+}
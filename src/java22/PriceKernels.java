@@ -0,0 +1,206 @@
+package java22;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Numeric kernels for price and stock columns.
+ * Uses the Vector API (JEP 338, incubating since Java 16 and still in
+ * Java 22) when the jdk.incubator.vector module is present, and plain
+ * loops otherwise:
+ *   javac/java --add-modules jdk.incubator.vector ...
+ */
+
+// =======================================================
+// PriceKernels — bulk arithmetic over primitive columns
+// All kernels read the first n elements of the given arrays.
+// =======================================================
+interface PriceKernels {
+
+    /** sum(prices[i] * stocks[i]) — total inventory value. */
+    double inventoryValue(double[] prices, int[] stocks, int n);
+
+    /** sum(prices[i]) where categories[i] == category, e.g. the laptop total. */
+    double sumWhereCategory(double[] prices, int[] categories, int category, int n);
+
+    /** prices[i] *= (1 - percent / 100), in place. */
+    void applyDiscount(double[] prices, double percent, int n);
+
+    /**
+     * Counts prices per band. Sorted bounds {b0, b1, ...} give the bands
+     * (-inf, b0], (b0, b1], ..., (bLast, +inf), so the result has bounds.length + 1 entries.
+     */
+    long[] countPriceBands(double[] prices, double[] bounds, int n);
+
+    /** Vector kernels when jdk.incubator.vector is available, scalar loops otherwise. */
+    static PriceKernels best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorPriceKernels();
+            } catch (LinkageError e) {
+                // incubator classes not usable on this JVM: use the scalar fallback
+            }
+        }
+        return new ScalarPriceKernels();
+    }
+
+    // Turns "count <= bound" per bound into per-band counts
+    static long[] bandsFromCumulative(long[] atMost, int n) {
+        long[] bands = new long[atMost.length + 1];
+        long previous = 0;
+        for (int b = 0; b < atMost.length; b++) {
+            bands[b] = atMost[b] - previous;
+            previous = atMost[b];
+        }
+        bands[atMost.length] = n - previous;
+        return bands;
+    }
+}
+
+// =======================================================
+// ScalarPriceKernels — plain loops, always available
+// =======================================================
+class ScalarPriceKernels implements PriceKernels {
+
+    @Override
+    public double inventoryValue(double[] prices, int[] stocks, int n) {
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += prices[i] * stocks[i];
+        }
+        return total;
+    }
+
+    @Override
+    public double sumWhereCategory(double[] prices, int[] categories, int category, int n) {
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            if (categories[i] == category) {
+                total += prices[i];
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void applyDiscount(double[] prices, double percent, int n) {
+        double factor = 1 - percent / 100;
+        for (int i = 0; i < n; i++) {
+            prices[i] *= factor;
+        }
+    }
+
+    @Override
+    public long[] countPriceBands(double[] prices, double[] bounds, int n) {
+        long[] atMost = new long[bounds.length];
+        for (int i = 0; i < n; i++) {
+            for (int b = 0; b < bounds.length; b++) {
+                if (prices[i] <= bounds[b]) {
+                    atMost[b]++;
+                }
+            }
+        }
+        return PriceKernels.bandsFromCumulative(atMost, n);
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
+
+// =======================================================
+// VectorPriceKernels — SIMD via jdk.incubator.vector
+// Uses the widest double shape the CPU supports (AVX2: 4 lanes,
+// AVX-512: 8 lanes); ints are loaded at half that width so the lane
+// counts match, then converted. The main loop runs unmasked up to
+// loopBound(n); only the final partial vector uses a mask.
+// =======================================================
+class VectorPriceKernels implements PriceKernels {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+            IntVector.SPECIES_PREFERRED.withShape(VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    @Override
+    public double inventoryValue(double[] prices, int[] stocks, int n) {
+        DoubleVector acc = DoubleVector.zero(DOUBLES);
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(n); i < bound; i += DOUBLES.length()) {
+            DoubleVector price = DoubleVector.fromArray(DOUBLES, prices, i);
+            acc = price.fma(toDoubles(IntVector.fromArray(INTS, stocks, i)), acc);
+        }
+        if (i < n) {
+            VectorMask<Double> m = DOUBLES.indexInRange(i, n);
+            DoubleVector price = DoubleVector.fromArray(DOUBLES, prices, i, m);
+            acc = price.fma(toDoubles(IntVector.fromArray(INTS, stocks, i, m.cast(INTS))), acc);
+        }
+        return acc.reduceLanes(VectorOperators.ADD);
+    }
+
+    @Override
+    public double sumWhereCategory(double[] prices, int[] categories, int category, int n) {
+        DoubleVector acc = DoubleVector.zero(DOUBLES);
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(n); i < bound; i += DOUBLES.length()) {
+            VectorMask<Double> match = IntVector.fromArray(INTS, categories, i)
+                    .compare(VectorOperators.EQ, category)
+                    .cast(DOUBLES);
+            acc = acc.add(DoubleVector.fromArray(DOUBLES, prices, i), match);
+        }
+        if (i < n) {
+            VectorMask<Double> inRange = DOUBLES.indexInRange(i, n);
+            VectorMask<Double> match = IntVector.fromArray(INTS, categories, i, inRange.cast(INTS))
+                    .compare(VectorOperators.EQ, category)
+                    .cast(DOUBLES)
+                    .and(inRange);
+            acc = acc.add(DoubleVector.fromArray(DOUBLES, prices, i, match), match);
+        }
+        return acc.reduceLanes(VectorOperators.ADD);
+    }
+
+    @Override
+    public void applyDiscount(double[] prices, double percent, int n) {
+        double factor = 1 - percent / 100;
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(n); i < bound; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, prices, i).mul(factor).intoArray(prices, i);
+        }
+        if (i < n) {
+            VectorMask<Double> m = DOUBLES.indexInRange(i, n);
+            DoubleVector.fromArray(DOUBLES, prices, i, m).mul(factor).intoArray(prices, i, m);
+        }
+    }
+
+    @Override
+    public long[] countPriceBands(double[] prices, double[] bounds, int n) {
+        long[] atMost = new long[bounds.length];
+        int i = 0;
+        for (int bound = DOUBLES.loopBound(n); i < bound; i += DOUBLES.length()) {
+            DoubleVector v = DoubleVector.fromArray(DOUBLES, prices, i);
+            for (int b = 0; b < bounds.length; b++) {
+                atMost[b] += v.compare(VectorOperators.LE, bounds[b]).trueCount();
+            }
+        }
+        if (i < n) {
+            VectorMask<Double> m = DOUBLES.indexInRange(i, n);
+            DoubleVector v = DoubleVector.fromArray(DOUBLES, prices, i, m);
+            for (int b = 0; b < bounds.length; b++) {
+                atMost[b] += v.compare(VectorOperators.LE, bounds[b]).and(m).trueCount();
+            }
+        }
+        return PriceKernels.bandsFromCumulative(atMost, n);
+    }
+
+    private static DoubleVector toDoubles(IntVector ints) {
+        return (DoubleVector) ints.convertShape(VectorOperators.I2D, DOUBLES, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "vector (" + DOUBLES + ")";
+    }
+}
@@ -0,0 +1,118 @@
+package java22;
+
+/**
+ * PriceKernels against the stream code they replace, on the same rows:
+ * the Vector kernels, the Scalar fallback and the java8-style
+ * stream().mapToDouble(...) pipelines (sequential, so all three use
+ * one core). Reports ns per row, best of several rounds after warm-up.
+ * Run it on AVX2 and AVX-512 hosts to compare lane widths.
+ *
+ *   java --add-modules jdk.incubator.vector java22.PriceKernelsBenchmark [rows]
+ *
+ * Without --add-modules the vector column reports "n/a".
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+public class PriceKernelsBenchmark {
+    private static final String[] CATEGORIES = {"Laptop", "Phone", "Accessory", "Monitor"};
+    private static final double[] BOUNDS = {100, 1000};
+    private static final int ROUNDS = 10;
+
+    private record Row(double price, int stock, String category) {
+    }
+
+    private static volatile double sink;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        List<Row> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rows.add(new Row(1 + random.nextInt(300_000) / 100.0, random.nextInt(100),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)]));
+        }
+        double[] prices = rows.stream().mapToDouble(Row::price).toArray();
+        int[] stocks = rows.stream().mapToInt(Row::stock).toArray();
+        List<String> categoryNames = List.of(CATEGORIES);
+        int[] categories = rows.stream().mapToInt(r -> categoryNames.indexOf(r.category())).toArray();
+        int laptop = categoryNames.indexOf("Laptop");
+
+        PriceKernels scalar = new ScalarPriceKernels();
+        PriceKernels vector = PriceKernels.best();
+        boolean hasVector = !(vector instanceof ScalarPriceKernels);
+
+        System.out.println("=====  PriceKernels vs. stream code =====");
+        System.out.printf("%,d rows, vector kernels: %s%n%n", n, hasVector ? vector : "n/a");
+        System.out.printf("%-18s %12s %12s %12s %10s%n", "kernel (ns/row)", "stream", "scalar", "vector", "vs stream");
+
+        report(n, hasVector, "inventoryValue",
+                () -> rows.stream().mapToDouble(r -> r.price() * r.stock()).reduce(0.0, Double::sum),
+                () -> scalar.inventoryValue(prices, stocks, n),
+                () -> vector.inventoryValue(prices, stocks, n));
+        report(n, hasVector, "sumWhereCategory",
+                () -> rows.stream().filter(r -> r.category().equals("Laptop")).mapToDouble(Row::price).sum(),
+                () -> scalar.sumWhereCategory(prices, categories, laptop, n),
+                () -> vector.sumWhereCategory(prices, categories, laptop, n));
+        // In place for the kernels (alternating +1% / -1% keeps prices stable);
+        // the stream version produces a new column, as stream code would
+        int[] flip = {0};
+        report(n, hasVector, "applyDiscount",
+                () -> rows.stream().mapToDouble(Row::price).map(p -> p * 0.99).toArray()[n - 1],
+                () -> {
+                    scalar.applyDiscount(prices, ++flip[0] % 2 == 0 ? 1 : -1, n);
+                    return prices[n - 1];
+                },
+                () -> {
+                    vector.applyDiscount(prices, ++flip[0] % 2 == 0 ? 1 : -1, n);
+                    return prices[n - 1];
+                });
+        report(n, hasVector, "countPriceBands",
+                () -> {
+                    long[] bands = new long[BOUNDS.length + 1];
+                    rows.stream().mapToInt(r -> band(r.price())).forEach(b -> bands[b]++);
+                    return bands[0];
+                },
+                () -> scalar.countPriceBands(prices, BOUNDS, n)[0],
+                () -> vector.countPriceBands(prices, BOUNDS, n)[0]);
+    }
+
+    private static int band(double price) {
+        int b = 0;
+        while (b < BOUNDS.length && price > BOUNDS[b]) {
+            b++;
+        }
+        return b;
+    }
+
+    private static void report(int n, boolean hasVector, String name,
+                               DoubleSupplier stream, DoubleSupplier scalar, DoubleSupplier vector) {
+        double streamNanos = nanosPerRow(stream, n);
+        double scalarNanos = nanosPerRow(scalar, n);
+        if (hasVector) {
+            double vectorNanos = nanosPerRow(vector, n);
+            System.out.printf("%-18s %12.2f %12.2f %12.2f %9.1fx%n",
+                    name, streamNanos, scalarNanos, vectorNanos, streamNanos / vectorNanos);
+        } else {
+            System.out.printf("%-18s %12.2f %12.2f %12s %9.1fx%n",
+                    name, streamNanos, scalarNanos, "n/a", streamNanos / scalarNanos);
+        }
+    }
+
+    // Best of ROUNDS after ROUNDS warm-up runs; results go to a volatile sink
+    private static double nanosPerRow(DoubleSupplier kernel, int n) {
+        for (int i = 0; i < ROUNDS; i++) {
+            sink = kernel.getAsDouble();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink = kernel.getAsDouble();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / n;
+    }
+}
@@ -0,0 +1,112 @@
+package java22;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Streaming revenue aggregation over an unbounded stream of orders.
+ * Keeps revenue and units per category for each open time window, and
+ * emits a window once the watermark (latest event time minus the allowed
+ * lateness) passes its end. Raw orders are never stored, so memory only
+ * depends on the number of open windows and categories.
+ *
+ *  - tumbling windows: slide == size (e.g. per-minute revenue)
+ *  - sliding windows:  slide  < size (e.g. last 5 minutes, every minute)
+ *
+ * Orders for windows that have already been emitted are counted as late
+ * and dropped.
+ */
+final class RevenueWindows {
+
+    record CategoryTotals(double revenue, long units) {
+    }
+
+    record WindowResult(long startMillis, long endMillis, Map<String, CategoryTotals> byCategory) {
+        double revenue() {
+            return byCategory.values().stream().mapToDouble(CategoryTotals::revenue).sum();
+        }
+    }
+
+    private static final class Totals {
+        double revenue;
+        long units;
+    }
+
+    private final long sizeMillis;
+    private final long slideMillis;
+    private final long latenessMillis;
+    private final Consumer<WindowResult> sink;
+    private final TreeMap<Long, Map<String, Totals>> openWindows = new TreeMap<>();
+    private long maxEventTime = Long.MIN_VALUE;
+    private long watermark = Long.MIN_VALUE;
+    private long lateOrders;
+
+    RevenueWindows(Duration size, Duration slide, Duration allowedLateness, Consumer<WindowResult> sink) {
+        this.sizeMillis = size.toMillis();
+        this.slideMillis = slide.toMillis();
+        this.latenessMillis = allowedLateness.toMillis();
+        this.sink = sink;
+        if (sizeMillis <= 0 || slideMillis <= 0 || slideMillis > sizeMillis || latenessMillis < 0) {
+            throw new IllegalArgumentException("Invalid window: size=" + size + ", slide=" + slide
+                    + ", allowedLateness=" + allowedLateness);
+        }
+    }
+
+    static RevenueWindows tumbling(Duration size, Duration allowedLateness, Consumer<WindowResult> sink) {
+        return new RevenueWindows(size, size, allowedLateness, sink);
+    }
+
+    static RevenueWindows sliding(Duration size, Duration slide, Duration allowedLateness,
+                                  Consumer<WindowResult> sink) {
+        return new RevenueWindows(size, slide, allowedLateness, sink);
+    }
+
+    void accept(TechStoreAppJava22.Order order, long eventTimeMillis) {
+        double revenue = order.product().price() * order.quantity();
+        String category = order.product().category();
+        boolean counted = false;
+        long lastStart = Math.floorDiv(eventTimeMillis, slideMillis) * slideMillis;
+        for (long start = lastStart; start > eventTimeMillis - sizeMillis; start -= slideMillis) {
+            if (start + sizeMillis <= watermark) {
+                continue; // this window was already emitted
+            }
+            Totals totals = openWindows.computeIfAbsent(start, s -> new HashMap<>())
+                    .computeIfAbsent(category, c -> new Totals());
+            totals.revenue += revenue;
+            totals.units += order.quantity();
+            counted = true;
+        }
+        if (!counted) {
+            lateOrders++;
+        }
+        if (eventTimeMillis > maxEventTime) {
+            maxEventTime = eventTimeMillis;
+            advanceWatermark(maxEventTime - latenessMillis);
+        }
+    }
+
+    /** Emits every open window, e.g. at the end of a finite stream. */
+    void flush() {
+        advanceWatermark(Long.MAX_VALUE);
+    }
+
+    long lateOrders() {
+        return lateOrders;
+    }
+
+    int openWindowCount() {
+        return openWindows.size();
+    }
+
+    private void advanceWatermark(long newWatermark) {
+        watermark = Math.max(watermark, newWatermark);
+        while (!openWindows.isEmpty() && openWindows.firstKey() + sizeMillis <= watermark) {
+            var window = openWindows.pollFirstEntry();
+            var byCategory = new TreeMap<String, CategoryTotals>();
+            window.getValue().forEach((c, t) -> byCategory.put(c, new CategoryTotals(t.revenue, t.units)));
+            sink.accept(new WindowResult(window.getKey(), window.getKey() + sizeMillis,
+                    Collections.unmodifiableMap(byCategory)));
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package java22;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.ToLongFunction;
 import java.util.stream.*;
 import static java.lang.StringTemplate.STR;
 
@@ -24,7 +26,6 @@ public class TechStoreAppJava22 {
         // =========================================================
         // Record Pattern Improvements: match Orders
         // =========================================================
-        record Order(Product product, int quantity) {}
         Object obj = new Order(inventory.get(0), 5);
 
         if (obj instanceof Order(Product(String name, double price, String category), int qty)) {
@@ -78,6 +79,87 @@ public class TechStoreAppJava22 {
                         list -> list.stream().map(Product::name).collect(Collectors.joining(", "))));
         System.out.println("All product names: " + namesJoined);
 
+        // Gatherers for bulk operations: fixed batches, time-or-size batches, sliding windows
+        inventory.stream()
+                .gather(InventoryGatherers.batches(2))
+                .forEach(batch -> System.out.println("Stock check batch: " + batch.stream().map(Product::name).toList()));
+        inventory.stream()
+                .gather(InventoryGatherers.batchesWithin(3, Duration.ofMillis(50)))
+                .forEach(batch -> System.out.println("Invoice batch of " + batch.size()));
+        inventory.stream()
+                .map(Product::price)
+                .gather(InventoryGatherers.sliding(2))
+                .forEach(w -> System.out.println("Price window: " + w));
+
+        // Cost of the gatherer stages themselves: 1M items through each stage.
+        // Per-item overhead falls as the batch size grows (one list and one
+        // downstream call per batch); windowFixed, which batches() uses, is
+        // the baseline for batchesWithin's extra clock reads.
+        var items = IntStream.range(0, 1_000_000).boxed().toList();
+        System.out.printf("%nNo stage: %.1f ns per item%n",
+                nanosPerItem(items, list -> list.stream().mapToLong(i -> 1).sum()));
+        System.out.printf("%10s %22s %22s%n", "batch size", "windowFixed (ns/item)", "batchesWithin 10ms");
+        for (int size : new int[]{1, 10, 100, 1000}) {
+            double fixed = nanosPerItem(items, list -> list.stream()
+                    .gather(Gatherers.windowFixed(size)).mapToLong(List::size).sum());
+            double within = nanosPerItem(items, list -> list.stream()
+                    .gather(InventoryGatherers.batchesWithin(size, Duration.ofMillis(10)))
+                    .mapToLong(List::size).sum());
+            System.out.printf("%10d %22.1f %22.1f%n", size, fixed, within);
+        }
+        System.out.printf("sliding(3): %.1f ns per item%n",
+                nanosPerItem(items, list -> list.stream().gather(InventoryGatherers.sliding(3)).mapToLong(List::size).sum()));
+
+        // =========================================================
+        // Streaming revenue: per-minute tumbling + 2-minute sliding windows
+        // =========================================================
+        long t0 = 0;
+        var perMinute = RevenueWindows.tumbling(Duration.ofMinutes(1), Duration.ofSeconds(10),
+                w -> System.out.println("Minute " + w.startMillis() / 60_000 + ": $" + w.revenue() + " " + w.byCategory()));
+        var lastTwoMinutes = RevenueWindows.sliding(Duration.ofMinutes(2), Duration.ofMinutes(1), Duration.ofSeconds(10),
+                w -> System.out.println("Minutes " + w.startMillis() / 60_000 + "-" + w.endMillis() / 60_000 + ": $" + w.revenue()));
+        long[] eventTimes = {t0 + 5_000, t0 + 42_000, t0 + 65_000, t0 + 58_000, t0 + 130_000, t0 + 20_000};
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < eventTimes.length; i++) {
+            var order = new Order(inventory.get(i % inventory.size()), 1 + i);
+            orders.add(order);
+            perMinute.accept(order, eventTimes[i]);
+            lastTwoMinutes.accept(order, eventTimes[i]);
+        }
+        perMinute.flush();
+        lastTwoMinutes.flush();
+        System.out.println("Late orders dropped: " + perMinute.lateOrders());
+
+        // =========================================================
+        // Foreign Function & Memory API (final): off-heap catalog rows
+        // =========================================================
+        try (OffHeapCatalog catalog = new OffHeapCatalog(16)) {
+            inventory.forEach(catalog::addProduct);
+            catalog.displayProducts();
+            System.out.println("Off-heap total price: $" + catalog.totalPrice());
+        }
+
+        // =========================================================
+        // Vector API (incubator): kernels over the catalog's columns
+        // (PriceKernelsBenchmark times them against the stream code)
+        // =========================================================
+        double[] priceColumn = inventory.stream().mapToDouble(Product::price).toArray();
+        List<String> categoryNames = inventory.stream().map(Product::category).distinct().toList();
+        int[] categoryColumn = inventory.stream().mapToInt(p -> categoryNames.indexOf(p.category())).toArray();
+        int[] unitsSold = new int[inventory.size()];
+        orders.forEach(o -> unitsSold[inventory.indexOf(o.product())] += o.quantity());
+        int rows = inventory.size();
+
+        PriceKernels kernels = PriceKernels.best();
+        System.out.println("\n Kernels: " + kernels);
+        System.out.println("Order revenue: $" + kernels.inventoryValue(priceColumn, unitsSold, rows));
+        System.out.println("Laptop total: $"
+                + kernels.sumWhereCategory(priceColumn, categoryColumn, categoryNames.indexOf("Laptop"), rows));
+        System.out.println("Price bands (<=100, <=1000, >1000): "
+                + Arrays.toString(kernels.countPriceBands(priceColumn, new double[]{100, 1000}, rows)));
+        kernels.applyDiscount(priceColumn, 10, rows);
+        System.out.println("Prices after 10% discount: " + Arrays.toString(priceColumn));
+
         // =========================================================
         // Sequenced Collections Enhanced
         // =========================================================
@@ -87,5 +169,21 @@ public class TechStoreAppJava22 {
         prices.forEach((k, v) -> System.out.println(k + " -> $" + v));
     }
 
+    // Best of 5 runs, after one warm-up run; results go to a volatile sink so the work isn't dropped
+    static double nanosPerItem(List<Integer> items, ToLongFunction<List<Integer>> pipeline) {
+        sink = pipeline.applyAsLong(items);
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            sink = pipeline.applyAsLong(items);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / items.size();
+    }
+
+    static volatile long sink;
+
     record Product(String name, double price, String category) {}
+
+    record Order(Product product, int quantity) {}
 }
@@ -0,0 +1,132 @@
+package java8;
+
+// ========================================================
+//  PRIMITIVE int → Product MAP (open addressing)
+// ========================================================
+// Keys live in a plain int[] and values in a parallel Product[] —
+// no Integer boxing and no per-entry node objects like HashMap.
+// Collisions use linear probing; a null value marks an empty slot.
+class IntProductMap {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Product[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public IntProductMap() {
+        this(16);
+    }
+
+    public IntProductMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /** Returns the product stored under id, or null. */
+    public Product get(int id) {
+        int slot = slot(id);
+        while (values[slot] != null) {
+            if (keys[slot] == id) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int id) {
+        return get(id) != null;
+    }
+
+    /** Stores product under id and returns the previous product, or null. */
+    public Product put(int id, Product product) {
+        if (product == null) {
+            throw new NullPointerException("product");
+        }
+        int slot = slot(id);
+        while (values[slot] != null) {
+            if (keys[slot] == id) {
+                Product previous = values[slot];
+                values[slot] = product;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = product;
+        if (++size > resizeThreshold) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    /** Convenience: indexes the product by its own id. */
+    public Product put(Product product) {
+        return put(product.getId(), product);
+    }
+
+    /** Looks up many ids at once; missing ids give null at the same position. */
+    public Product[] getAll(int[] ids) {
+        Product[] result = new Product[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = get(ids[i]);
+        }
+        return result;
+    }
+
+    private int slot(int id) {
+        // murmur3 finalizer spreads sequential ids across the table
+        int h = id;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        Product[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Product[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+        return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                if (sb.length() > 1) sb.append(", ");
+                sb.append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
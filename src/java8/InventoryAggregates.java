@@ -0,0 +1,166 @@
+package java8;
+
+import java.util.*;
+
+// ========================================================
+//  LIVE INVENTORY AGGREGATES
+// ========================================================
+// Keeps per-category count, price sum, min/max price, total stock and
+// stock value up to date as products are added, removed or changed, so
+// dashboards read ready-made numbers instead of rescanning the catalog.
+// Count, sums and stock value update in O(1); min/max use a sorted
+// price multiset per category, which costs O(log n) per change.
+// Membership is tracked by product id: remove/update subtract the values
+// that were actually added, and unknown ids are rejected.
+// Money totals are compensated sums, so rounding error does not build up
+// over long add/remove/update sequences.
+class InventoryAggregates {
+    private final Map<String, CategoryAggregate> byCategory = new LinkedHashMap<>();
+    private final Map<Integer, Product> tracked = new HashMap<>();
+    private final CompensatedSum totalInventoryValue = new CompensatedSum();
+    private long totalCount;
+
+    public static InventoryAggregates of(Collection<Product> products) {
+        InventoryAggregates aggregates = new InventoryAggregates();
+        products.forEach(aggregates::add);
+        return aggregates;
+    }
+
+    public void add(Product p) {
+        if (tracked.containsKey(p.getId())) {
+            throw new IllegalArgumentException("Product already tracked: " + p);
+        }
+        tracked.put(p.getId(), p);
+        include(p);
+    }
+
+    /** Removes the tracked product with p's id; its tracked values are subtracted, not p's. */
+    public void remove(Product p) {
+        Product current = tracked.remove(p.getId());
+        if (current == null) {
+            throw new NoSuchElementException("Product not tracked: " + p);
+        }
+        exclude(current);
+    }
+
+    /** Price or stock change: Product is immutable, so the tracked version of before is replaced. */
+    public void update(Product before, Product after) {
+        Product current = tracked.get(before.getId());
+        if (current == null) {
+            throw new NoSuchElementException("Product not tracked: " + before);
+        }
+        if (after.getId() != before.getId() && tracked.containsKey(after.getId())) {
+            throw new IllegalArgumentException("Product already tracked: " + after);
+        }
+        tracked.remove(before.getId());
+        exclude(current);
+        tracked.put(after.getId(), after);
+        include(after);
+    }
+
+    private void include(Product p) {
+        byCategory.computeIfAbsent(p.getCategory(), c -> new CategoryAggregate()).add(p);
+        totalInventoryValue.add(p.getPrice() * p.getStock());
+        totalCount++;
+    }
+
+    private void exclude(Product p) {
+        CategoryAggregate aggregate = byCategory.get(p.getCategory());
+        aggregate.remove(p);
+        if (aggregate.count == 0) {
+            byCategory.remove(p.getCategory());
+        }
+        totalInventoryValue.add(-p.getPrice() * p.getStock());
+        totalCount--;
+    }
+
+    public long count() { return totalCount; }
+
+    public double totalInventoryValue() { return totalInventoryValue.value(); }
+
+    public Set<String> categories() {
+        return Collections.unmodifiableSet(byCategory.keySet());
+    }
+
+    /** Read-only view of one category's aggregates, or empty if it has no products. */
+    public Optional<CategoryAggregate> category(String category) {
+        return Optional.ofNullable(byCategory.get(category));
+    }
+
+    public Map<String, Double> averagePriceByCategory() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        byCategory.forEach((category, aggregate) -> result.put(category, aggregate.averagePrice()));
+        return result;
+    }
+
+    // ========================================================
+    //  PER-CATEGORY AGGREGATE
+    // ========================================================
+    static class CategoryAggregate {
+        private long count;
+        private final CompensatedSum priceSum = new CompensatedSum();
+        private long totalStock;
+        private final CompensatedSum stockValue = new CompensatedSum();
+        // price -> number of products at that price, for min/max under removal
+        private final TreeMap<Double, Integer> prices = new TreeMap<>();
+
+        private void add(Product p) {
+            count++;
+            priceSum.add(p.getPrice());
+            totalStock += p.getStock();
+            stockValue.add(p.getPrice() * p.getStock());
+            prices.merge(p.getPrice(), 1, Integer::sum);
+        }
+
+        // Only called for tracked products, so the price is always present
+        private void remove(Product p) {
+            int n = prices.get(p.getPrice());
+            if (n == 1) {
+                prices.remove(p.getPrice());
+            } else {
+                prices.put(p.getPrice(), n - 1);
+            }
+            count--;
+            priceSum.add(-p.getPrice());
+            totalStock -= p.getStock();
+            stockValue.add(-p.getPrice() * p.getStock());
+        }
+
+        public long count() { return count; }
+        public double priceSum() { return priceSum.value(); }
+        public double averagePrice() { return count == 0 ? 0.0 : priceSum.value() / count; }
+        public double minPrice() { return prices.isEmpty() ? 0.0 : prices.firstKey(); }
+        public double maxPrice() { return prices.isEmpty() ? 0.0 : prices.lastKey(); }
+        public long totalStock() { return totalStock; }
+        public double stockValue() { return stockValue.value(); }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, avg=$%.2f, min=$%.2f, max=$%.2f, stock=%d, value=$%.2f",
+                    count, averagePrice(), minPrice(), maxPrice(), totalStock, stockValue());
+        }
+    }
+
+    // ========================================================
+    //  COMPENSATED SUM (Neumaier's variant of Kahan summation)
+    // ========================================================
+    // Carries the low-order bits each addition rounds away in a separate
+    // term. The error stays around one rounding of the current total
+    // instead of growing with the number of updates.
+    private static final class CompensatedSum {
+        private double sum;
+        private double compensation;
+
+        void add(double x) {
+            double t = sum + x;
+            if (Math.abs(sum) >= Math.abs(x)) {
+                compensation += (sum - t) + x;
+            } else {
+                compensation += (x - t) + sum;
+            }
+            sum = t;
+        }
+
+        double value() { return sum + compensation; }
+    }
+}
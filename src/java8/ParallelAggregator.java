@@ -0,0 +1,177 @@
+package java8;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+
+// ========================================================
+//  PARALLEL AGGREGATION ENGINE over ProductColumns
+// ========================================================
+// parallelStream() over boxed Products pays for boxing and uneven
+// splitting. This engine splits row ranges of the primitive columns with
+// a SIZED/SUBSIZED spliterator (exact halves), stops splitting at a chunk
+// size derived from the pool's parallelism, and runs the leaves as tight
+// loops over the arrays. It uses its own ForkJoinPool, so it never
+// competes with other work on the common pool.
+class ParallelAggregator implements AutoCloseable {
+    private static final int MIN_CHUNK = 16 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /** Aggregates rows [from, to) of a column set. */
+    @FunctionalInterface
+    interface RangeKernel {
+        double apply(int from, int to);
+    }
+
+    private final ForkJoinPool pool;
+
+    public ParallelAggregator(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public ParallelAggregator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /** Sums kernel results over all rows [0, size). */
+    public double sum(int size, RangeKernel kernel) {
+        long chunk = Math.max(MIN_CHUNK, size / ((long) parallelism() * CHUNKS_PER_THREAD));
+        return pool.invoke(new SumTask(new RowRange(0, size), chunk, kernel));
+    }
+
+    public double totalInventoryValue(ProductColumns columns) {
+        double[] prices = columns.priceColumn();
+        int[] stocks = columns.stockColumn();
+        return sum(columns.size(), (from, to) -> {
+            double total = 0;
+            for (int i = from; i < to; i++) {
+                total += prices[i] * stocks[i];
+            }
+            return total;
+        });
+    }
+
+    public double totalPrice(ProductColumns columns, int categoryCode) {
+        double[] prices = columns.priceColumn();
+        int[] categories = columns.categoryColumn();
+        return sum(columns.size(), (from, to) -> {
+            double total = 0;
+            for (int i = from; i < to; i++) {
+                if (categories[i] == categoryCode) {
+                    total += prices[i];
+                }
+            }
+            return total;
+        });
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Times totalInventoryValue() at each parallelism and returns the scaling
+     * efficiency per core count: speedup over 1 thread divided by thread count
+     * (1.0 = perfect linear scaling).
+     */
+    public static Map<Integer, Double> scalingEfficiency(ProductColumns columns, int[] parallelisms, int rounds) {
+        Map<Integer, Double> efficiency = new LinkedHashMap<>();
+        double baseline = 0;
+        for (int p : parallelisms) {
+            try (ParallelAggregator aggregator = new ParallelAggregator(p)) {
+                aggregator.totalInventoryValue(columns); // warm-up
+                long best = Long.MAX_VALUE;
+                for (int r = 0; r < rounds; r++) {
+                    long start = System.nanoTime();
+                    aggregator.totalInventoryValue(columns);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                if (baseline == 0) {
+                    baseline = best * (double) p; // normalize in case the first entry isn't 1
+                }
+                efficiency.put(p, baseline / best / p);
+            }
+        }
+        return efficiency;
+    }
+
+    // ========================================================
+    //  ROW RANGE SPLITERATOR — exact, balanced halving
+    // ========================================================
+    static final class RowRange implements Spliterator.OfInt {
+        private int from;
+        private final int to;
+
+        RowRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public RowRange trySplit() {
+            int mid = (from + to) >>> 1;
+            if (mid <= from) {
+                return null;
+            }
+            RowRange prefix = new RowRange(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(from++);
+            return true;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT | SORTED;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null; // natural order
+        }
+    }
+
+    private static final class SumTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final RowRange range;
+        private final long chunk;
+        private final RangeKernel kernel;
+
+        SumTask(RowRange range, long chunk, RangeKernel kernel) {
+            this.range = range;
+            this.chunk = chunk;
+            this.kernel = kernel;
+        }
+
+        @Override
+        protected Double compute() {
+            if (range.estimateSize() <= chunk) {
+                return kernel.apply(range.from, range.to);
+            }
+            RowRange prefix = range.trySplit();
+            SumTask left = new SumTask(prefix, chunk, kernel);
+            left.fork();
+            double right = new SumTask(range, chunk, kernel).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package java8;
+
+import java.util.*;
+
+// ========================================================
+//  BITMAP INDEXES FOR COMPOUND FILTERS
+// ========================================================
+// One bitmap per category, per price band and for "in stock": bit i is set
+// when product i (insertion order) matches. Combining filters is then a
+// word-by-word AND/OR/NOT over the bitmaps, and only the rows left at the
+// end are turned back into Product objects.
+//
+// Price bands come from the given upper bounds, e.g. {100, 1000} gives
+// (-inf, 100], (100, 1000], (1000, +inf), so priceAbove(1000) is exact.
+class ProductBitmapIndex {
+    private final List<Product> rows = new ArrayList<>();
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final double[] bandBounds;
+    private final BitSet[] byPriceBand;
+    private final BitSet inStock = new BitSet();
+
+    public ProductBitmapIndex(double... bandBounds) {
+        this.bandBounds = bandBounds.clone();
+        Arrays.sort(this.bandBounds);
+        byPriceBand = new BitSet[this.bandBounds.length + 1];
+        for (int i = 0; i < byPriceBand.length; i++) {
+            byPriceBand[i] = new BitSet();
+        }
+    }
+
+    public static ProductBitmapIndex of(Collection<Product> products, double... bandBounds) {
+        ProductBitmapIndex index = new ProductBitmapIndex(bandBounds);
+        products.forEach(index::add);
+        return index;
+    }
+
+    public void add(Product p) {
+        int row = rows.size();
+        rows.add(p);
+        byCategory.computeIfAbsent(key(p.getCategory()), k -> new BitSet()).set(row);
+        byPriceBand[band(p.getPrice())].set(row);
+        if (p.getStock() > 0) {
+            inStock.set(row);
+        }
+    }
+
+    public int size() { return rows.size(); }
+
+    // ========================================================
+    //  FILTERS — each returns a fresh Query that can be combined
+    // ========================================================
+    public Query category(String category) {
+        BitSet bits = byCategory.get(key(category));
+        return new Query(bits == null ? new BitSet() : (BitSet) bits.clone());
+    }
+
+    public Query priceBand(int band) {
+        return new Query((BitSet) byPriceBand[band].clone());
+    }
+
+    /** price > minPrice; minPrice must be one of the band bounds. */
+    public Query priceAbove(double minPrice) {
+        int first = Arrays.binarySearch(bandBounds, minPrice);
+        if (first < 0) {
+            throw new IllegalArgumentException("Not a price band bound: " + minPrice
+                    + " (bounds: " + Arrays.toString(bandBounds) + ")");
+        }
+        BitSet bits = new BitSet();
+        for (int b = first + 1; b < byPriceBand.length; b++) {
+            bits.or(byPriceBand[b]);
+        }
+        return new Query(bits);
+    }
+
+    public Query inStock() {
+        return new Query((BitSet) inStock.clone());
+    }
+
+    public Query all() {
+        BitSet bits = new BitSet();
+        bits.set(0, rows.size());
+        return new Query(bits);
+    }
+
+    private int band(double price) {
+        int i = Arrays.binarySearch(bandBounds, price);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static String key(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+
+    // ========================================================
+    //  QUERY — a bitmap being combined; operations modify it in place
+    // ========================================================
+    class Query {
+        private final BitSet bits;
+
+        private Query(BitSet bits) {
+            this.bits = bits;
+        }
+
+        public Query and(Query other) {
+            bits.and(other.bits);
+            return this;
+        }
+
+        public Query or(Query other) {
+            bits.or(other.bits);
+            return this;
+        }
+
+        public Query andNot(Query other) {
+            bits.andNot(other.bits);
+            return this;
+        }
+
+        public Query not() {
+            bits.flip(0, rows.size());
+            return this;
+        }
+
+        public int count() {
+            return bits.cardinality();
+        }
+
+        /** Materializes only the matching rows, in insertion order. */
+        public List<Product> products() {
+            List<Product> result = new ArrayList<>(bits.cardinality());
+            for (int row = bits.nextSetBit(0); row >= 0; row = bits.nextSetBit(row + 1)) {
+                result.add(rows.get(row));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package java8;
+
+import java.util.*;
+
+// ========================================================
+//  COLUMNAR PRODUCT STORE (struct-of-arrays)
+// ========================================================
+// Keeps each Product field in its own primitive array, so whole-catalog
+// scans read contiguous memory and never box a Double per row.
+// Categories are dictionary-encoded into small int codes.
+class ProductColumns {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] ids;
+    private String[] names;
+    private int[] categoryCodes;
+    private double[] prices;
+    private int[] stocks;
+    private int size;
+
+    private final List<String> categories = new ArrayList<>();
+    private final Map<String, Integer> categoryCodeByName = new HashMap<>();
+
+    public ProductColumns() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ProductColumns(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        ids = new int[capacity];
+        names = new String[capacity];
+        categoryCodes = new int[capacity];
+        prices = new double[capacity];
+        stocks = new int[capacity];
+    }
+
+    public static ProductColumns of(Collection<Product> products) {
+        ProductColumns columns = new ProductColumns(products.size());
+        products.forEach(columns::add);
+        return columns;
+    }
+
+    /** Appends a product and returns its row number. */
+    public int add(Product p) {
+        if (size == ids.length) {
+            grow();
+        }
+        int row = size++;
+        ids[row] = p.getId();
+        names[row] = p.getName();
+        categoryCodes[row] = codeFor(p.getCategory());
+        prices[row] = p.getPrice();
+        stocks[row] = p.getStock();
+        return row;
+    }
+
+    public int size() { return size; }
+
+    public int id(int row) { return ids[checkRow(row)]; }
+    public String name(int row) { return names[checkRow(row)]; }
+    public String category(int row) { return categories.get(categoryCodes[checkRow(row)]); }
+    public int categoryCode(int row) { return categoryCodes[checkRow(row)]; }
+    public double price(int row) { return prices[checkRow(row)]; }
+    public int stock(int row) { return stocks[checkRow(row)]; }
+
+    /** Materializes a row back into a Product object. */
+    public Product toProduct(int row) {
+        checkRow(row);
+        return new Product(ids[row], names[row], categories.get(categoryCodes[row]), prices[row], stocks[row]);
+    }
+
+    public int categoryCount() { return categories.size(); }
+    public String categoryName(int code) { return categories.get(code); }
+
+    /** Returns the code of a category, or -1 if no product has it (case-insensitive). */
+    public int categoryCode(String category) {
+        Integer code = categoryCodeByName.get(category.toLowerCase(Locale.ROOT));
+        return code == null ? -1 : code;
+    }
+
+    // ========================================================
+    //  AGGREGATES — tight loops over the primitive columns
+    // ========================================================
+    public double totalInventoryValue() {
+        double total = 0.0;
+        for (int i = 0; i < size; i++) {
+            total += prices[i] * stocks[i];
+        }
+        return total;
+    }
+
+    public long totalStock() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += stocks[i];
+        }
+        return total;
+    }
+
+    public double totalPrice() {
+        double total = 0.0;
+        for (int i = 0; i < size; i++) {
+            total += prices[i];
+        }
+        return total;
+    }
+
+    public double averagePrice() {
+        return size == 0 ? 0.0 : totalPrice() / size;
+    }
+
+    /** Sum of prices for one category code; -1 (unknown category) gives 0. */
+    public double totalPrice(int categoryCode) {
+        double total = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (categoryCodes[i] == categoryCode) {
+                total += prices[i];
+            }
+        }
+        return total;
+    }
+
+    public int countPriceAbove(double minPrice) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (prices[i] > minPrice) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Average price per category in a single pass, keyed by category name. */
+    public Map<String, Double> averagePriceByCategory() {
+        double[] sums = new double[categories.size()];
+        int[] counts = new int[categories.size()];
+        for (int i = 0; i < size; i++) {
+            sums[categoryCodes[i]] += prices[i];
+            counts[categoryCodes[i]]++;
+        }
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int c = 0; c < sums.length; c++) {
+            if (counts[c] > 0) {
+                result.put(categories.get(c), sums[c] / counts[c]);
+            }
+        }
+        return result;
+    }
+
+    // ========================================================
+    //  SCAN — visit matching rows without materializing Products
+    // ========================================================
+    @FunctionalInterface
+    interface RowVisitor {
+        void visit(int row);
+    }
+
+    public void scanPriceAbove(double minPrice, RowVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            if (prices[i] > minPrice) {
+                visitor.visit(i);
+            }
+        }
+    }
+
+    public void scanCategory(int categoryCode, RowVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            if (categoryCodes[i] == categoryCode) {
+                visitor.visit(i);
+            }
+        }
+    }
+
+    // Read-only views of the raw columns for bulk kernels (valid up to size()).
+    int[] idColumn() { return ids; }
+    int[] categoryColumn() { return categoryCodes; }
+    double[] priceColumn() { return prices; }
+    int[] stockColumn() { return stocks; }
+
+    private int codeFor(String category) {
+        String key = category.toLowerCase(Locale.ROOT);
+        Integer code = categoryCodeByName.get(key);
+        if (code == null) {
+            code = categories.size();
+            categories.add(category);
+            categoryCodeByName.put(key, code);
+        }
+        return code;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        stocks = Arrays.copyOf(stocks, capacity);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range [0, " + size + ")");
+        }
+        return row;
+    }
+}
@@ -65,8 +65,9 @@ public class TechStoreAppJava8 {
         // ========================================================
         // 5️⃣ REDUCE — Total inventory value
         // ========================================================
+        // mapToDouble keeps the reduction on primitive doubles (no boxing per element)
         double totalValue = products.stream()
-                .map(p -> p.getPrice() * p.getStock())
+                .mapToDouble(p -> p.getPrice() * p.getStock())
                 .reduce(0.0, Double::sum);
         System.out.println("\n Total inventory value: $" + totalValue);
 
@@ -87,12 +88,26 @@ public class TechStoreAppJava8 {
                 .sum();
         System.out.println("\n⚡ Total laptop price (parallel): $" + totalLaptopPrice);
 
+        // Same total from the primitive columns (reused in section 12), on a dedicated fork/join pool
+        ProductColumns columns = ProductColumns.of(products);
+        try (ParallelAggregator aggregator = new ParallelAggregator()) {
+            System.out.println("⚡ Total laptop price (parallel engine): $"
+                    + aggregator.totalPrice(columns, columns.categoryCode("Laptop")));
+        }
+
         // ========================================================
         // 8️⃣ DEFAULT INTERFACE METHOD
         // ========================================================
-        StoreOperations ops = new StoreManager();
+        StoreOperations ops = new StoreManager(products);
         ops.generateReport(products);
 
+        ops.generateReport(products, 3);
+        System.out.println("Top 2 (parallel): " + ops.topByPriceParallel(products, 2));
+
+        // Lookup by id through the primitive int-keyed index
+        System.out.println("\n Product #4: " + ops.findById(4).orElse(null));
+        System.out.println("Order lines [1, 5, 99]: " + Arrays.toString(ops.getAll(new int[]{1, 5, 99})));
+
         // ========================================================
         // 9️⃣ DATE & TIME API
         // ========================================================
@@ -124,6 +139,59 @@ public class TechStoreAppJava8 {
         discounts.replaceAll((cat, disc) -> disc + 2); // increase all discounts by 2%
         discounts.forEach((cat, disc) ->
                 System.out.println("New discount for " + cat + ": " + disc + "%"));
+
+        // ========================================================
+        // 1️⃣2️⃣ COLUMNAR STORE — primitive arrays for analytics
+        // ========================================================
+        System.out.println("\n Columnar inventory value: $" + columns.totalInventoryValue());
+        System.out.println("Columnar average price: $" + columns.averagePrice());
+        System.out.println("Columnar average price by category: " + columns.averagePriceByCategory());
+        System.out.println("Columnar laptop total: $" + columns.totalPrice(columns.categoryCode("Laptop")));
+        System.out.print("Columnar scan (price > 1000):");
+        columns.scanPriceAbove(1000, row -> System.out.print(" " + columns.name(row)));
+        System.out.println();
+
+        // ========================================================
+        // 1️⃣3️⃣ BITMAP INDEXES — combine filters without rescanning
+        // ========================================================
+        ProductBitmapIndex bitmaps = ProductBitmapIndex.of(products, 100, 1000);
+        List<Product> expensiveLaptopsInStock = bitmaps.category("Laptop")
+                .and(bitmaps.priceAbove(1000))
+                .and(bitmaps.inStock())
+                .products();
+        System.out.println("\n Expensive laptops in stock: " + expensiveLaptopsInStock);
+        System.out.println("Non-laptops up to $1000: " + bitmaps.category("Laptop").not()
+                .andNot(bitmaps.priceAbove(1000))
+                .count());
+
+        // ========================================================
+        // 1️⃣4️⃣ LIVE AGGREGATES — updated on every change, no rescans
+        // ========================================================
+        InventoryAggregates aggregates = InventoryAggregates.of(products);
+        System.out.println("\n Live total inventory value: $" + aggregates.totalInventoryValue());
+        aggregates.category("Laptop").ifPresent(a -> System.out.println("Laptop aggregates: " + a));
+
+        Product macBook = products.get(0);
+        aggregates.update(macBook, new Product(macBook.getId(), macBook.getName(),
+                macBook.getCategory(), 2300.0, macBook.getStock()));
+        System.out.println("After MacBook price drop: " + aggregates.averagePriceByCategory());
+
+        // ========================================================
+        // 1️⃣5️⃣ PARALLEL SCALING — efficiency per core count
+        // ========================================================
+        // Kept small so the demo stays quick; pass a row count to measure a real catalog size
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        ProductColumns bigCatalog = new ProductColumns(rows);
+        Random random = new Random(42);
+        for (int i = 0; i < rows; i++) {
+            Product template = products.get(i % products.size());
+            bigCatalog.add(new Product(i, template.getName(), template.getCategory(),
+                    random.nextInt(3000), random.nextInt(50)));
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        int[] threadCounts = IntStream.iterate(1, n -> n * 2).limit(32 - Integer.numberOfLeadingZeros(cores)).toArray();
+        System.out.println("\n Parallel scaling efficiency (threads -> efficiency): "
+                + ParallelAggregator.scalingEfficiency(bigCatalog, threadCounts, 3));
     }
 }
 
@@ -162,18 +230,65 @@ class Product {
 //  INTERFACE WITH DEFAULT METHOD
 // ========================================================
 interface StoreOperations {
+    Optional<Product> findById(int id);
+
+    // Missing ids give null at the same position
+    default Product[] getAll(int[] ids) {
+        Product[] result = new Product[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = findById(ids[i]).orElse(null);
+        }
+        return result;
+    }
+
     default void generateReport(List<Product> products) {
         System.out.println("\n Generating java8.Product Report...");
         products.stream()
                 .sorted(Comparator.comparing(Product::getPrice).reversed())
                 .forEach(p -> System.out.println(p.getName() + " - $" + p.getPrice()));
     }
+
+    // Top-k report: bounded heap instead of sorting the whole list
+    default void generateReport(List<Product> products, int k) {
+        System.out.println("\n Generating Top " + k + " java8.Product Report...");
+        topByPrice(products, k)
+                .forEach(p -> System.out.println(p.getName() + " - $" + p.getPrice()));
+    }
+
+    default List<Product> topByPrice(List<Product> products, int k) {
+        return products.stream().collect(TopK.greatest(k, Comparator.comparingDouble(Product::getPrice)));
+    }
+
+    // Each parallel chunk keeps its own k-heap; the heaps are merged at the end
+    default List<Product> topByPriceParallel(List<Product> products, int k) {
+        return products.parallelStream().collect(TopK.greatest(k, Comparator.comparingDouble(Product::getPrice)));
+    }
 }
 
 // ========================================================
 //  IMPLEMENTATION CLASS
 // ========================================================
 class StoreManager implements StoreOperations {
-    // can override default if needed
+    private final IntProductMap productsById;
+
+    public StoreManager(Collection<Product> products) {
+        productsById = new IntProductMap(products.size());
+        products.forEach(productsById::put);
+    }
+
+    public void addProduct(Product product) {
+        productsById.put(product);
+    }
+
+    @Override
+    public Optional<Product> findById(int id) {
+        return Optional.ofNullable(productsById.get(id));
+    }
+
+    // overrides the default to skip the per-id Optional
+    @Override
+    public Product[] getAll(int[] ids) {
+        return productsById.getAll(ids);
+    }
 }
 
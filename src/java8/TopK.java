@@ -0,0 +1,49 @@
+package java8;
+
+import java.util.*;
+import java.util.stream.Collector;
+
+// ========================================================
+//  TOP-K COLLECTOR (bounded min-heap)
+// ========================================================
+// Keeps only the k greatest elements seen so far in a min-heap, so
+// picking the top k of n costs O(n log k) time and O(k) memory instead
+// of sorting everything. On parallel streams each chunk builds its own
+// heap and the heaps are merged.
+final class TopK {
+    private TopK() {
+    }
+
+    /** The k greatest elements according to comparator, greatest first. */
+    static <T> Collector<T, PriorityQueue<T>, List<T>> greatest(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        return Collector.of(
+                () -> new PriorityQueue<T>(Math.max(1, Math.min(k, 1024)), comparator),
+                (heap, item) -> offer(heap, item, k, comparator),
+                (left, right) -> {
+                    PriorityQueue<T> smaller = left.size() < right.size() ? left : right;
+                    PriorityQueue<T> larger = smaller == left ? right : left;
+                    for (T item : smaller) {
+                        offer(larger, item, k, comparator);
+                    }
+                    return larger;
+                },
+                heap -> {
+                    List<T> result = new ArrayList<>(heap);
+                    result.sort(comparator.reversed());
+                    return result;
+                },
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private static <T> void offer(PriorityQueue<T> heap, T item, int k, Comparator<? super T> comparator) {
+        if (heap.size() < k) {
+            heap.offer(item);
+        } else if (k > 0 && comparator.compare(item, heap.peek()) > 0) {
+            heap.poll();
+            heap.offer(item);
+        }
+    }
+}